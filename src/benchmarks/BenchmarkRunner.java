@@ -0,0 +1,189 @@
+package benchmarks;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures the time and the memory a single operation takes. An operation is
+ * first repeated for a warmup period so the JIT compiler can optimize it,
+ * afterwards it is repeated for a number of measured iterations of fixed
+ * length. The allocated bytes are read from the thread before and after each
+ * iteration, so operations have to run on the calling thread.
+ * 
+ * @author Nic Dorner
+ * 
+ */
+public class BenchmarkRunner {
+
+	/**
+	 * An operation to benchmark
+	 * 
+	 * @author Nic Dorner
+	 * 
+	 */
+	public interface Operation {
+		/**
+		 * Runs the operation once
+		 * 
+		 * @return Any result of the operation, it is consumed so the JIT
+		 *         compiler can not remove the operation
+		 */
+		public long run();
+	}
+
+	private long warmupMillis = 1000;
+	private int iterations = 5;
+	private long iterationMillis = 1000;
+
+	// Receives the results of all operations
+	private volatile long sink;
+
+	public void setWarmupMillis(long warmupMillis) {
+		this.warmupMillis = warmupMillis;
+	}
+
+	public void setIterations(int iterations) {
+		this.iterations = Math.max(1, iterations);
+	}
+
+	public void setIterationMillis(long iterationMillis) {
+		this.iterationMillis = iterationMillis;
+	}
+
+	/**
+	 * Benchmarks an operation
+	 * 
+	 * @param name
+	 *            The name of the benchmark
+	 * @param operation
+	 *            The operation to measure
+	 * @return The time and the allocated bytes per operation
+	 */
+	public Result run(String name, Operation operation) {
+		this.measure(operation, this.warmupMillis);
+		double[] nanos = new double[this.iterations];
+		double bytes = 0;
+		for (int i = 0; i < this.iterations; i++) {
+			long allocated = allocatedBytes();
+			long start = System.nanoTime();
+			long count = this.measure(operation, this.iterationMillis);
+			nanos[i] = (double) (System.nanoTime() - start) / count;
+			bytes += (double) (allocatedBytes() - allocated) / count;
+		}
+		return new Result(name, nanos, bytes / this.iterations);
+	}
+
+	/**
+	 * Repeats an operation until the time is up
+	 * 
+	 * @param operation
+	 *            The operation to repeat
+	 * @param millis
+	 *            The time to repeat it for
+	 * @return The number of times the operation was run
+	 */
+	private long measure(Operation operation, long millis) {
+		long end = System.nanoTime() + millis * 1000000;
+		long count = 0;
+		long result = 0;
+		// Reading the clock after every operation would distort fast ones, so
+		// the operations run in batches that grow up to a limit
+		int batch = 1;
+		do {
+			for (int i = 0; i < batch; i++) {
+				result += operation.run();
+			}
+			count += batch;
+			batch = Math.min(batch * 2, 1024);
+		} while (System.nanoTime() < end);
+		this.sink = result;
+		return count;
+	}
+
+	/**
+	 * Returns the bytes allocated by the calling thread so far
+	 * 
+	 * @return The allocated bytes or 0 if the virtual machine does not count
+	 *         them
+	 */
+	private static long allocatedBytes() {
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return 0;
+	}
+
+	/**
+	 * Result of a benchmark
+	 * 
+	 * @author Nic Dorner
+	 * 
+	 */
+	public static class Result {
+		private final String name;
+		private final double nanos;
+		private final double error;
+		private final double bytes;
+
+		/**
+		 * Creates the result from the measured iterations
+		 * 
+		 * @param name
+		 *            The name of the benchmark
+		 * @param nanos
+		 *            The nanoseconds per operation of each iteration
+		 * @param bytes
+		 *            The allocated bytes per operation
+		 */
+		public Result(String name, double[] nanos, double bytes) {
+			this.name = name;
+			double sum = 0;
+			for (double value : nanos) {
+				sum += value;
+			}
+			this.nanos = sum / nanos.length;
+			double variance = 0;
+			for (double value : nanos) {
+				variance += (value - this.nanos) * (value - this.nanos);
+			}
+			this.error = nanos.length > 1 ? Math.sqrt(variance / (nanos.length - 1)) : 0;
+			this.bytes = bytes;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * Returns the average time of an operation
+		 * 
+		 * @return Nanoseconds per operation
+		 */
+		public double getNanos() {
+			return nanos;
+		}
+
+		/**
+		 * Returns the standard deviation of the time between the iterations
+		 * 
+		 * @return Nanoseconds per operation
+		 */
+		public double getError() {
+			return error;
+		}
+
+		/**
+		 * Returns the memory allocated by an operation
+		 * 
+		 * @return Bytes per operation
+		 */
+		public double getBytes() {
+			return bytes;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%-48s %14.1f +- %10.1f ns/op %12.1f B/op", name, nanos, error, bytes);
+		}
+	}
+}
@@ -0,0 +1,68 @@
+package benchmarks;
+
+import gamelogic.Game;
+import gamelogic.GameBoard;
+import gamelogic.Player;
+import gamelogic.Position;
+
+/**
+ * Fixed positions the benchmarks run on. The positions were taken from games
+ * between a random and a greedy player, the first row is to move in all of
+ * them.
+ * 
+ * @author Nic Dorner
+ * 
+ */
+public final class Corpus {
+
+	/** The start of the game and two positions with 42 or more seeds left */
+	public static final Position[] OPENING = { Position.INITIAL,
+			position(new int[][] { { 0, 1, 10, 0, 8, 2 }, { 0, 0, 9, 0, 9, 1 } }),
+			position(new int[][] { { 1, 0, 3, 3, 4, 2 }, { 6, 0, 1, 10, 0, 10 } }) };
+
+	/** Positions with 22 to 30 seeds left */
+	public static final Position[] MIDDLEGAME = {
+			position(new int[][] { { 1, 1, 1, 0, 0, 7 }, { 1, 1, 0, 1, 13, 2 } }),
+			position(new int[][] { { 1, 0, 4, 5, 1, 0 }, { 2, 0, 5, 6, 0, 0 } }),
+			position(new int[][] { { 1, 0, 2, 5, 4, 2 }, { 3, 0, 3, 2, 0, 0 } }) };
+
+	/** Positions with 10 to 14 seeds left */
+	public static final Position[] ENDGAME = {
+			position(new int[][] { { 1, 6, 1, 1, 0, 0 }, { 0, 1, 0, 1, 0, 1 } }),
+			position(new int[][] { { 0, 1, 1, 0, 2, 2 }, { 2, 0, 1, 0, 0, 3 } }),
+			position(new int[][] { { 1, 3, 0, 0, 1, 3 }, { 1, 0, 0, 0, 1, 0 } }) };
+
+	private Corpus() {
+	}
+
+	/**
+	 * Returns the positions of all phases of the game
+	 * 
+	 * @return The positions of the opening, the middlegame and the endgame
+	 */
+	public static Position[][] phases() {
+		return new Position[][] { OPENING, MIDDLEGAME, ENDGAME };
+	}
+
+	/**
+	 * Creates a game in the given position without observers
+	 * 
+	 * @param position
+	 *            The position with the first row to move
+	 * @return A new game
+	 */
+	public static Game game(Position position) {
+		return new Game(new GameBoard(position), new Player("A"), new Player("B"));
+	}
+
+	/**
+	 * Creates a position with the first row to move
+	 * 
+	 * @param board
+	 *            The seeds of each pit indexed by row and column
+	 * @return The position
+	 */
+	private static Position position(int[][] board) {
+		return new Position(board, 0);
+	}
+}
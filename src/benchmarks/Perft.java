@@ -0,0 +1,308 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import gamelogic.Game;
+import gamelogic.GameBoard;
+import gamelogic.Player;
+import gamelogic.Position;
+
+/**
+ * Counts the positions that can be reached with a given number of turns. A
+ * pass of a player without seeds is not counted as a turn, games that end
+ * before the depth is reached do not add to the count.
+ * 
+ * The count is done once with the game and the gameboard and once with the
+ * packed positions. Both have to agree, which cross-checks the packed
+ * representation against the rules of the game, and the time it takes
+ * measures the speed of the move generation.
+ * 
+ * @author Nic Dorner
+ * 
+ */
+public class Perft {
+
+	private int threads = 1;
+	private int hashMegabytes = 0;
+
+	/**
+	 * Sets the number of threads, the columns of the first turn are split
+	 * between them
+	 * 
+	 * @param threads
+	 *            The number of threads
+	 */
+	public void setThreads(int threads) {
+		this.threads = Math.max(1, threads);
+	}
+
+	/**
+	 * Sets the size of the table that stores the counts of positions that are
+	 * reached in several ways. Each thread uses its own table, so no locking
+	 * is needed.
+	 * 
+	 * @param hashMegabytes
+	 *            The size of the table in megabytes or 0 to count without one
+	 */
+	public void setHashMegabytes(int hashMegabytes) {
+		this.hashMegabytes = hashMegabytes;
+	}
+
+	/**
+	 * Counts the positions after the given number of turns with the packed
+	 * positions
+	 * 
+	 * @param position
+	 *            The position to start from
+	 * @param depth
+	 *            The number of turns
+	 * @return The number of positions
+	 */
+	public long perft(Position position, int depth) {
+		if (this.threads == 1) {
+			return new Counter(this.hashMegabytes).count(position, depth);
+		}
+		long[] counts = this.divide(position, depth);
+		long nodes = 0;
+		for (long count : counts) {
+			nodes += count;
+		}
+		return nodes;
+	}
+
+	/**
+	 * Counts the positions after the given number of turns for each column of
+	 * the first turn
+	 * 
+	 * @param position
+	 *            The position to start from
+	 * @param depth
+	 *            The number of turns, at least 1
+	 * @return The number of positions by the column of the first turn
+	 */
+	public long[] divide(Position position, int depth) {
+		if (position.legalMoves() == 0 && !position.isTerminal()) {
+			position = position.pass();
+		}
+		List<Task> tasks = new ArrayList<Task>();
+		long[] counts = new long[GameBoard.WIDTH];
+		if (position.isTerminal()) {
+			return counts;
+		}
+		// Tasks that run on the same thread share the table of the thread
+		ThreadLocal<Counter> counters = ThreadLocal.withInitial(() -> new Counter(this.hashMegabytes));
+		int moves = position.legalMoves();
+		for (int column = 0; column < GameBoard.WIDTH; column++) {
+			if ((moves >>> column & 1) != 0) {
+				tasks.add(new Task(position.play(column), depth - 1, column, counters));
+			}
+		}
+		ForkJoinPool pool = new ForkJoinPool(this.threads);
+		try {
+			for (Task task : tasks) {
+				pool.execute(task);
+			}
+			for (Task task : tasks) {
+				counts[task.column] = task.join();
+			}
+		} finally {
+			pool.shutdown();
+		}
+		return counts;
+	}
+
+	/**
+	 * Counts the positions after the given number of turns with the game. All
+	 * turns and passes are undone, so the state of the game does not change.
+	 * 
+	 * @param game
+	 *            The game to start from
+	 * @param depth
+	 *            The number of turns
+	 * @return The number of positions
+	 */
+	public static long perft(Game game, int depth) {
+		if (depth == 0) {
+			return 1;
+		}
+		if (game.passTurn()) {
+			long nodes = perft(game, depth);
+			game.undoTurn();
+			return nodes;
+		}
+		long nodes = 0;
+		int moves = game.legalMoves();
+		for (int column = 0; column < GameBoard.WIDTH; column++) {
+			if ((moves >>> column & 1) != 0) {
+				game.playTurn(column);
+				nodes += perft(game, depth - 1);
+				game.undoTurn();
+			}
+		}
+		return nodes;
+	}
+
+	/**
+	 * Counts the positions below one column of the first turn
+	 * 
+	 * @author Nic Dorner
+	 * 
+	 */
+	@SuppressWarnings("serial")
+	private static class Task extends RecursiveTask<Long> {
+		private final Position position;
+		private final int depth;
+		private final int column;
+		private final ThreadLocal<Counter> counters;
+
+		public Task(Position position, int depth, int column, ThreadLocal<Counter> counters) {
+			this.position = position;
+			this.depth = depth;
+			this.column = column;
+			this.counters = counters;
+		}
+
+		@Override
+		protected Long compute() {
+			return this.counters.get().count(this.position, this.depth);
+		}
+	}
+
+	/**
+	 * Counts positions with an optional table of already counted positions.
+	 * An entry holds both packed rows, the side to move and the depth, so a
+	 * position is never mistaken for another one.
+	 * 
+	 * @author Nic Dorner
+	 * 
+	 */
+	private static class Counter {
+		// Longs per entry: the first row, the second row with the side to move
+		// and the depth, the count
+		private static final int ENTRY = 3;
+		private static final int DEPTH_SHIFT = 40;
+
+		private final long[] table;
+		private final int mask;
+
+		/**
+		 * Creates the counter
+		 * 
+		 * @param megabytes
+		 *            The size of the table or 0 to count without one
+		 */
+		public Counter(int megabytes) {
+			int entries = megabytes <= 0 ? 0
+					: Integer.highestOneBit((int) Math.min(1 << 26, (long) megabytes * 1024 * 1024 / (8 * ENTRY)));
+			this.table = entries == 0 ? null : new long[entries * ENTRY];
+			this.mask = entries - 1;
+		}
+
+		/**
+		 * Counts the positions after the given number of turns
+		 * 
+		 * @param position
+		 *            The position to start from
+		 * @param depth
+		 *            The number of turns
+		 * @return The number of positions
+		 */
+		public long count(Position position, int depth) {
+			if (depth == 0) {
+				return 1;
+			}
+			if (position.isTerminal()) {
+				return 0;
+			}
+			int moves = position.legalMoves();
+			if (moves == 0) {
+				position = position.pass();
+				moves = position.legalMoves();
+			}
+			// Positions close to the leaves are cheaper to count than to
+			// look up
+			if (depth <= 2 || this.table == null) {
+				return this.countMoves(position, moves, depth);
+			}
+			long first = position.getFirst();
+			long second = position.getSecond() | (long) position.getSideToMove() << (DEPTH_SHIFT - 1)
+					| (long) depth << DEPTH_SHIFT;
+			long mixed = (first * 0x9E3779B97F4A7C15L) ^ second;
+			int index = ((int) (mixed ^ (mixed >>> 32)) & this.mask) * ENTRY;
+			if (this.table[index] == first && this.table[index + 1] == second) {
+				return this.table[index + 2];
+			}
+			long nodes = this.countMoves(position, moves, depth);
+			this.table[index] = first;
+			this.table[index + 1] = second;
+			this.table[index + 2] = nodes;
+			return nodes;
+		}
+
+		/**
+		 * Counts the positions below each column of the player to move
+		 * 
+		 * @param position
+		 *            The position to start from
+		 * @param moves
+		 *            The playable columns
+		 * @param depth
+		 *            The number of turns
+		 * @return The number of positions
+		 */
+		private long countMoves(Position position, int moves, int depth) {
+			if (depth == 1) {
+				return Integer.bitCount(moves);
+			}
+			long nodes = 0;
+			for (int column = 0; column < GameBoard.WIDTH; column++) {
+				if ((moves >>> column & 1) != 0) {
+					nodes += this.count(position.play(column), depth - 1);
+				}
+			}
+			return nodes;
+		}
+	}
+
+	/**
+	 * Counts the positions from the start of the game for each depth up to
+	 * the given one
+	 * 
+	 * @param args
+	 *            The depth, optionally followed by -threads n, -hash megabytes
+	 *            and -check to count with the game as well
+	 */
+	public static void main(String[] args) {
+		int depth = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+		Perft perft = new Perft();
+		boolean check = false;
+		for (int i = 1; i < args.length; i++) {
+			if (args[i].equals("-threads")) {
+				perft.setThreads(Integer.parseInt(args[++i]));
+			} else if (args[i].equals("-hash")) {
+				perft.setHashMegabytes(Integer.parseInt(args[++i]));
+			} else if (args[i].equals("-check")) {
+				check = true;
+			}
+		}
+		Game game = new Game(new GameBoard(), new Player("A"), new Player("B"));
+		for (int d = 1; d <= depth; d++) {
+			long start = System.nanoTime();
+			long nodes = perft.perft(Position.INITIAL, d);
+			long nanos = Math.max(1, System.nanoTime() - start);
+			String line = String.format("perft(%d) = %d in %.3f s, %.1f Mnodes/s", d, nodes, nanos / 1e9,
+					nodes * 1e3 / nanos);
+			if (check) {
+				start = System.nanoTime();
+				long gameNodes = perft(game, d);
+				nanos = Math.max(1, System.nanoTime() - start);
+				line += String.format(", game %d in %.3f s %s", gameNodes, nanos / 1e9,
+						gameNodes == nodes ? "OK" : "MISMATCH");
+			}
+			System.out.println(line);
+		}
+	}
+}
@@ -0,0 +1,198 @@
+package benchmarks;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import benchmarks.BenchmarkRunner.Operation;
+import computerplayer.Defensive;
+import computerplayer.Greedy;
+import computerplayer.MinMax;
+import computerplayer.Random;
+import computerplayer.TurnCalculator;
+import gamelogic.Game;
+import gamelogic.GameBoard;
+import gamelogic.Position;
+
+/**
+ * Benchmarks of the game logic and the computer players on the positions of
+ * the {@link Corpus}. Each benchmark runs once per phase of the game and
+ * cycles through the positions of the phase.
+ * 
+ * The board can only be played once, so the playPit benchmark saves and
+ * undoes the board around every played pit, the saveBoard benchmark measures
+ * this overhead on its own.
+ * 
+ * @author Nic Dorner
+ * 
+ */
+public class UrilBenchmarks {
+
+	private static final String[] PHASES = { "opening", "middlegame", "endgame" };
+
+	/**
+	 * Creates all benchmarks of a phase
+	 * 
+	 * @param positions
+	 *            The positions of the phase
+	 * @return The operations by the name of the benchmark
+	 */
+	private static Map<String, Operation> benchmarks(Position[] positions) {
+		Map<String, Operation> benchmarks = new LinkedHashMap<String, Operation>();
+		benchmarks.put("GameBoard.playPit", playPit(positions));
+		benchmarks.put("GameBoard.saveBoard+undoBoard", saveBoard(positions));
+		benchmarks.put("Game.playTurn+undoTurn", playTurn(positions));
+		benchmarks.put("Random", calculateTurn(positions, Random::new));
+		benchmarks.put("Greedy", calculateTurn(positions, Greedy::new));
+		benchmarks.put("Defensive", calculateTurn(positions, Defensive::new));
+		for (int depth : new int[] { 2, 8, 12 }) {
+			benchmarks.put("MinMax" + depth, calculateTurn(positions, () -> {
+				MinMax minMax = new MinMax();
+				minMax.setDepth(depth);
+				return minMax;
+			}));
+		}
+		return benchmarks;
+	}
+
+	/**
+	 * Plays one pit of the first row per operation, cycling through all
+	 * playable pits of the positions
+	 * 
+	 * @param positions
+	 *            The positions to play
+	 * @return The operation
+	 */
+	private static Operation playPit(Position[] positions) {
+		GameBoard[] boards = new GameBoard[positions.length * GameBoard.WIDTH];
+		int[] columns = new int[boards.length];
+		int count = 0;
+		for (Position position : positions) {
+			GameBoard board = new GameBoard(position);
+			for (int column = 0; column < GameBoard.WIDTH; column++) {
+				if (board.getPitSeeds(0, column) > 0) {
+					boards[count] = board;
+					columns[count++] = column;
+				}
+			}
+		}
+		int size = count;
+		int[] next = { 0 };
+		return () -> {
+			int i = next[0];
+			next[0] = i + 1 == size ? 0 : i + 1;
+			GameBoard board = boards[i];
+			board.saveBoard();
+			int eaten = board.playPit(0, columns[i]);
+			board.undoBoard();
+			return eaten;
+		};
+	}
+
+	/**
+	 * Saves and undoes a board per operation
+	 * 
+	 * @param positions
+	 *            The positions to save
+	 * @return The operation
+	 */
+	private static Operation saveBoard(Position[] positions) {
+		GameBoard[] boards = new GameBoard[positions.length];
+		for (int i = 0; i < positions.length; i++) {
+			boards[i] = new GameBoard(positions[i]);
+		}
+		int[] next = { 0 };
+		return () -> {
+			int i = next[0];
+			next[0] = i + 1 == boards.length ? 0 : i + 1;
+			boards[i].saveBoard();
+			boards[i].undoBoard();
+			return boards[i].getHash();
+		};
+	}
+
+	/**
+	 * Plays and undoes one column per operation, cycling through all playable
+	 * columns of the positions
+	 * 
+	 * @param positions
+	 *            The positions to play
+	 * @return The operation
+	 */
+	private static Operation playTurn(Position[] positions) {
+		Game[] games = new Game[positions.length * GameBoard.WIDTH];
+		int[] columns = new int[games.length];
+		int count = 0;
+		for (Position position : positions) {
+			Game game = Corpus.game(position);
+			for (int column = 0; column < GameBoard.WIDTH; column++) {
+				if (position.getPitSeeds(0, column) > 0) {
+					games[count] = game;
+					columns[count++] = column;
+				}
+			}
+		}
+		int size = count;
+		int[] next = { 0 };
+		return () -> {
+			int i = next[0];
+			next[0] = i + 1 == size ? 0 : i + 1;
+			int score = games[i].playTurn(columns[i]);
+			games[i].undoTurn();
+			return score;
+		};
+	}
+
+	/**
+	 * Calculates one turn per operation, cycling through the positions
+	 * 
+	 * @param positions
+	 *            The positions to calculate the turn for
+	 * @param calculator
+	 *            Creates the calculator, one is used for all positions
+	 * @return The operation
+	 */
+	private static Operation calculateTurn(Position[] positions, Supplier<TurnCalculator> calculator) {
+		TurnCalculator turnCalculator = calculator.get();
+		Game[] games = new Game[positions.length];
+		for (int i = 0; i < positions.length; i++) {
+			games[i] = Corpus.game(positions[i]);
+		}
+		int[] next = { 0 };
+		return () -> {
+			int i = next[0];
+			next[0] = i + 1 == games.length ? 0 : i + 1;
+			return turnCalculator.calculateTurn(games[i]);
+		};
+	}
+
+	/**
+	 * Runs the benchmarks
+	 * 
+	 * @param args
+	 *            Only benchmarks whose name contains the first argument are
+	 *            run, for example "MinMax8/endgame"; the second and third
+	 *            argument set the number and the length in milliseconds of
+	 *            the measured iterations (default 5 of 1000)
+	 */
+	public static void main(String[] args) {
+		String filter = args.length > 0 ? args[0] : "";
+		BenchmarkRunner runner = new BenchmarkRunner();
+		if (args.length > 1) {
+			runner.setIterations(Integer.parseInt(args[1]));
+		}
+		if (args.length > 2) {
+			runner.setIterationMillis(Long.parseLong(args[2]));
+			runner.setWarmupMillis(Long.parseLong(args[2]));
+		}
+		Position[][] phases = Corpus.phases();
+		for (int i = 0; i < phases.length; i++) {
+			for (Map.Entry<String, Operation> benchmark : benchmarks(phases[i]).entrySet()) {
+				String name = benchmark.getKey() + "/" + PHASES[i];
+				if (name.contains(filter)) {
+					System.out.println(runner.run(name, benchmark.getValue()));
+				}
+			}
+		}
+	}
+}
@@ -16,8 +16,10 @@ public class Defensive implements TurnCalculator {
 	public int calculateTurn(Game game) {
 		int defensiveTurn = 0;
 		int defenseLevel = 12;
+		int moves = game.legalMoves();
 		for (int i = 0; i < GameBoard.WIDTH; i++) {
-			if (game.playTurn(i) != -1) {
+			if ((moves >>> i & 1) != 0) {
+				game.playTurn(i);
 				GameBoard gameBoard = game.getGameBoard();
 				int defense = 0;
 				for (int y = 0; y < GameBoard.WIDTH; y++) {
@@ -0,0 +1,418 @@
+package computerplayer;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import gamelogic.Game;
+import gamelogic.GameBoard;
+import gamelogic.Position;
+
+/**
+ * Endgame tablebase that holds the result of perfect play for every position
+ * with only a few seeds left on the board. The table is created by retrograde
+ * analysis: the positions are solved layer by layer from two seeds upwards,
+ * eating seeds always leads into a smaller layer that is already solved.
+ * 
+ * For each position the table stores how many more points the player to move
+ * makes than the opponent until the game ends. The differential does not
+ * depend on the current scores, so the same table serves every game. A
+ * position with the second row to move has the value of its mirror image with
+ * the first row to move, so only the positions of the first row are stored.
+ * 
+ * Inside a layer the players can sow seeds around forever without eating any.
+ * These positions are solved by repeating the minmax step on the whole layer
+ * until no value changes anymore, starting with the assumption that no more
+ * seeds are eaten. A cycle that neither player wants to leave keeps this value
+ * of 0.
+ * 
+ * The positions of a layer are numbered by their combinatorial rank, so a
+ * position is looked up without any search. The table is written to a file
+ * that is memory mapped when opened, only the pages that are probed are read.
+ * 
+ * @author Nic Dorner
+ * 
+ */
+public class EndgameTable {
+
+	/** Value returned for positions that are not in the table */
+	public static final int UNKNOWN = Integer.MIN_VALUE;
+
+	// Identifies a table file, "URT2"; files of the first version stored both
+	// sides to move
+	private static final int MAGIC = 0x55525432;
+	// Size of the header: magic number and number of seeds
+	private static final int HEADER = 8;
+	// Seeds are eaten in pairs, so only layers with an even number of seeds
+	// are reachable from the start of the game
+	private static final int LAYER_STEP = 2;
+	// Upper limit for the sweeps over a layer until all values are stable
+	private static final int MAX_SWEEPS = 1000;
+
+	private static final int PITS = GameBoard.HEIGHT * GameBoard.WIDTH;
+	// Binomial coefficients, BINOMIAL[n][k] is n choose k
+	private static final long[][] BINOMIAL = new long[GameBoard.TOTALSEEDS + PITS][PITS];
+
+	static {
+		for (int n = 0; n < BINOMIAL.length; n++) {
+			BINOMIAL[n][0] = 1;
+			for (int k = 1; k < PITS && k <= n; k++) {
+				BINOMIAL[n][k] = BINOMIAL[n - 1][k - 1] + (k < n ? BINOMIAL[n - 1][k] : 0);
+			}
+		}
+	}
+
+	private final int maxSeeds;
+	private final ByteBuffer data;
+
+	/**
+	 * Constructor that wraps the values of all layers
+	 * 
+	 * @param maxSeeds
+	 *            The highest number of seeds in the table
+	 * @param data
+	 *            The values of all layers, starting with two seeds
+	 */
+	private EndgameTable(int maxSeeds, ByteBuffer data) {
+		this.maxSeeds = maxSeeds;
+		this.data = data;
+	}
+
+	/**
+	 * Opens a table file created by {@link #write(File)}. The file is memory
+	 * mapped and read lazily while the table is probed.
+	 * 
+	 * @param file
+	 *            The table file
+	 * @throws IOException
+	 *             Thrown if the file can not be read or is not a table
+	 * @return The table
+	 */
+	public static EndgameTable open(File file) throws IOException {
+		try (RandomAccessFile input = new RandomAccessFile(file, "r")) {
+			if (input.length() < HEADER || input.readInt() != MAGIC) {
+				throw new IOException(file + " is not an endgame table");
+			}
+			int maxSeeds = input.readInt();
+			if (maxSeeds < 0 || maxSeeds > GameBoard.TOTALSEEDS
+					|| input.length() != HEADER + offset(maxSeeds + LAYER_STEP)) {
+				throw new IOException(file + " is damaged");
+			}
+			// The mapping stays valid after the file is closed
+			ByteBuffer data = input.getChannel().map(FileChannel.MapMode.READ_ONLY, HEADER, input.length() - HEADER);
+			return new EndgameTable(maxSeeds, data);
+		}
+	}
+
+	/**
+	 * Creates a table in memory by retrograde analysis of all positions up to
+	 * the given number of seeds
+	 * 
+	 * @param maxSeeds
+	 *            The highest number of seeds in the table
+	 * @throws IllegalArgumentException
+	 *             Thrown if there are more seeds than in a game
+	 * @throws IllegalStateException
+	 *             Thrown if the values of a layer do not become stable
+	 * @return The table
+	 */
+	public static EndgameTable generate(int maxSeeds) {
+		if (maxSeeds < 0 || maxSeeds > GameBoard.TOTALSEEDS) {
+			throw new IllegalArgumentException("The table can hold at most " + GameBoard.TOTALSEEDS + " seeds.");
+		}
+		maxSeeds -= maxSeeds % LAYER_STEP;
+		long size = offset(maxSeeds + LAYER_STEP);
+		if (size > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("A table with " + maxSeeds + " seeds is too large.");
+		}
+		EndgameTable table = new EndgameTable(maxSeeds, ByteBuffer.allocate((int) size));
+		// Two seeds end the game, the values of this layer are all 0
+		for (int seeds = 2 * LAYER_STEP; seeds <= maxSeeds; seeds += LAYER_STEP) {
+			table.solveLayer(seeds);
+		}
+		return table;
+	}
+
+	/**
+	 * Writes the table to a file that can be opened with {@link #open(File)}
+	 * 
+	 * @param file
+	 *            The table file
+	 * @throws IOException
+	 *             Thrown if the file can not be written
+	 */
+	public void write(File file) throws IOException {
+		try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+			output.writeInt(MAGIC);
+			output.writeInt(this.maxSeeds);
+			ByteBuffer data = this.data.duplicate();
+			data.clear();
+			byte[] buffer = new byte[1 << 16];
+			while (data.hasRemaining()) {
+				int length = Math.min(buffer.length, data.remaining());
+				data.get(buffer, 0, length);
+				output.write(buffer, 0, length);
+			}
+		}
+	}
+
+	/**
+	 * Returns the highest number of seeds in the table
+	 * 
+	 * @return Positions with up to this many seeds are in the table
+	 */
+	public int getMaxSeeds() {
+		return this.maxSeeds;
+	}
+
+	/**
+	 * Tells if the current position of a game is in the table
+	 * 
+	 * @param game
+	 *            The game to look up
+	 * @return True if the table holds the current position
+	 */
+	public boolean contains(Game game) {
+		return this.contains(game.getGameBoard().getTotalSeeds());
+	}
+
+	/**
+	 * Looks up the current position of a game
+	 * 
+	 * @param game
+	 *            The game to look up
+	 * @return The points the player to move makes more than the opponent
+	 *         until the end of the game or UNKNOWN if the position is not in
+	 *         the table
+	 */
+	public int probe(Game game) {
+		if (game.hasEnded()) {
+			return 0;
+		}
+		return this.probe(game.getPosition());
+	}
+
+	/**
+	 * Looks up a position
+	 * 
+	 * @param position
+	 *            The position to look up
+	 * @return The points the side to move makes more than the opponent until
+	 *         the end of the game or UNKNOWN if the position is not in the
+	 *         table
+	 */
+	public int probe(Position position) {
+		int seeds = position.getTotalSeeds();
+		if (!this.contains(seeds)) {
+			return UNKNOWN;
+		}
+		if (seeds <= 2) {
+			// The game is over or no seeds can be eaten anymore
+			return 0;
+		}
+		return this.data.get((int) index(position, seeds));
+	}
+
+	/**
+	 * Tells if the positions with the given number of seeds are in the table
+	 * 
+	 * @param seeds
+	 *            Total seeds on the board
+	 * @return True if the layer of the seeds is in the table
+	 */
+	private boolean contains(int seeds) {
+		return seeds <= this.maxSeeds && seeds % LAYER_STEP == 0;
+	}
+
+	/**
+	 * Solves all positions with the given number of seeds. All smaller layers
+	 * have to be solved already.
+	 * 
+	 * @param seeds
+	 *            Total seeds of the layer
+	 */
+	private void solveLayer(int seeds) {
+		int entries = (int) BINOMIAL[seeds + PITS - 1][PITS - 1];
+		int base = (int) offset(seeds);
+		// Best value of the moves that eat seeds and the entries of the moves
+		// that stay in this layer
+		int[] fixed = new int[entries];
+		int[] children = new int[entries * GameBoard.WIDTH];
+		byte[] count = new byte[entries];
+
+		int[] pits = new int[PITS];
+		for (int entry = 0; entry < entries; entry++) {
+			unrank(entry, seeds, pits);
+			Position position = position(pits);
+			int moves = position.legalMoves();
+			fixed[entry] = Integer.MIN_VALUE;
+			if (moves == 0) {
+				// The player has to pass without eating seeds
+				children[entry * GameBoard.WIDTH] = (int) index(position.pass(), seeds) - base;
+				count[entry] = 1;
+				continue;
+			}
+			for (int column = 0; column < GameBoard.WIDTH; column++) {
+				if ((moves >>> column & 1) == 0) {
+					continue;
+				}
+				Position child = position.play(column);
+				int remaining = child.getTotalSeeds();
+				if (remaining == seeds) {
+					children[entry * GameBoard.WIDTH + count[entry]++] = (int) index(child, seeds) - base;
+				} else {
+					int value = (seeds - remaining) / 2 - this.probe(child);
+					fixed[entry] = Math.max(fixed[entry], value);
+				}
+			}
+		}
+
+		// Repeat the minmax step until the values of the cycles are stable
+		int sweeps = 0;
+		boolean changed = true;
+		while (changed) {
+			if (++sweeps > MAX_SWEEPS) {
+				throw new IllegalStateException("The values with " + seeds + " seeds do not become stable.");
+			}
+			changed = false;
+			for (int entry = 0; entry < entries; entry++) {
+				int value = fixed[entry];
+				for (int i = 0; i < count[entry]; i++) {
+					value = Math.max(value, -this.data.get(base + children[entry * GameBoard.WIDTH + i]));
+				}
+				if (value != this.data.get(base + entry)) {
+					this.data.put(base + entry, (byte) value);
+					changed = true;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the index of a position in the table, positions of the second
+	 * row are looked up by their mirror image
+	 * 
+	 * @param position
+	 *            The position
+	 * @param seeds
+	 *            Total seeds of the position
+	 * @return Index of the value of the position
+	 */
+	private static long index(Position position, int seeds) {
+		// Number of distributions where the pits before i are the same and
+		// pit i holds fewer seeds
+		position = position.canonical();
+		long rank = 0;
+		int remaining = seeds;
+		for (int i = 0; i < PITS - 1; i++) {
+			int pit = seeds(position, i);
+			int free = PITS - 2 - i;
+			for (int x = 0; x < pit; x++) {
+				rank += BINOMIAL[remaining - x + free][free];
+			}
+			remaining -= pit;
+		}
+		return offset(seeds) + rank;
+	}
+
+	/**
+	 * Fills the pits of the position with the given rank
+	 * 
+	 * @param rank
+	 *            The rank inside the layer
+	 * @param seeds
+	 *            Total seeds of the layer
+	 * @param pits
+	 *            Receives the seeds of each pit in sowing order
+	 */
+	private static void unrank(long rank, int seeds, int[] pits) {
+		int remaining = seeds;
+		for (int i = 0; i < PITS - 1; i++) {
+			int free = PITS - 2 - i;
+			int x = 0;
+			while (rank >= BINOMIAL[remaining - x + free][free]) {
+				rank -= BINOMIAL[remaining - x + free][free];
+				x++;
+			}
+			pits[i] = x;
+			remaining -= x;
+		}
+		pits[PITS - 1] = remaining;
+	}
+
+	/**
+	 * Returns the index of the first value of a layer
+	 * 
+	 * @param seeds
+	 *            Total seeds of the layer
+	 * @return The number of values in all smaller layers
+	 */
+	private static long offset(int seeds) {
+		long offset = 0;
+		for (int n = LAYER_STEP; n < seeds; n += LAYER_STEP) {
+			offset += BINOMIAL[n + PITS - 1][PITS - 1];
+		}
+		return offset;
+	}
+
+	/**
+	 * Returns the seeds of a pit by its index in sowing order
+	 * 
+	 * @param position
+	 *            The position
+	 * @param pit
+	 *            Index of the pit, the first row from column 0 to 5 followed
+	 *            by the second row from column 5 to 0
+	 * @return The seeds in the pit
+	 */
+	private static int seeds(Position position, int pit) {
+		if (pit < GameBoard.WIDTH) {
+			return position.getPitSeeds(0, pit);
+		}
+		return position.getPitSeeds(1, PITS - 1 - pit);
+	}
+
+	/**
+	 * Creates a position with the first row to move from the pits in sowing
+	 * order
+	 * 
+	 * @param pits
+	 *            The seeds of each pit in sowing order
+	 * @return The position
+	 */
+	private static Position position(int[] pits) {
+		int[][] board = new int[GameBoard.HEIGHT][GameBoard.WIDTH];
+		for (int j = 0; j < GameBoard.WIDTH; j++) {
+			board[0][j] = pits[j];
+			board[1][j] = pits[PITS - 1 - j];
+		}
+		return new Position(board, 0);
+	}
+
+	/**
+	 * Creates a table file
+	 * 
+	 * @param args
+	 *            The highest number of seeds (default 12) and the name of the
+	 *            file (default endgame.tb)
+	 */
+	public static void main(String[] args) {
+		int maxSeeds = args.length > 0 ? Integer.parseInt(args[0]) : 12;
+		File file = new File(args.length > 1 ? args[1] : "endgame.tb");
+		long start = System.currentTimeMillis();
+		EndgameTable table = generate(maxSeeds);
+		try {
+			table.write(file);
+		} catch (IOException e) {
+			e.printStackTrace();
+			return;
+		}
+		System.out.println("Solved all positions with up to " + table.getMaxSeeds() + " seeds in "
+				+ (System.currentTimeMillis() - start) + " ms, written to " + file);
+	}
+}
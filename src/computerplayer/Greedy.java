@@ -16,14 +16,15 @@ public class Greedy implements TurnCalculator {
 	public int calculateTurn(Game game) {
 		int greedyTurn = 0;
 		int greedLevel = -1;
+		int moves = game.legalMoves();
 		for (int i = 0; i < GameBoard.WIDTH; i++) {
-			int greed;
-			if ((greed = game.playTurn(i)) != -1) {
+			if ((moves >>> i & 1) != 0) {
+				// The seeds are counted without playing the column
+				int greed = game.getGameBoard().getCaptures(game.getTurn(), i);
 				if (greed > greedLevel) {
 					greedLevel = greed;
 					greedyTurn = i;
 				}
-				game.undoTurn();
 			}
 		}
 		return greedyTurn;
@@ -0,0 +1,440 @@
+package computerplayer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import gamelogic.Game;
+import gamelogic.GameBoard;
+import gamelogic.Position;
+
+/**
+ * This class calculates a turn with a Monte Carlo tree search. Each iteration
+ * walks down the tree by the UCT formula, adds one new position and plays the
+ * game from there to the end with random turns. The column that was visited
+ * most often is played.
+ *
+ * The playouts sow on packed positions, so they neither use the game nor
+ * allocate more than one object per turn. The search can use several threads
+ * that share one tree, a thread that walks through a position counts it as
+ * visited before its playout is done, so the other threads prefer other
+ * paths. The tree is kept between turns and the part below the new position
+ * is searched further, so iterations that are run while the opponent
+ * ponders its turn are used as well.
+ *
+ * @author Nic Dorner
+ *
+ */
+public class MCTS implements TurnCalculator, Ponderer {
+
+	// Iterations if neither iterations nor a time limit are set
+	private static final int DEFAULT_ITERATIONS = 10000;
+	// Exploration constant of the UCT formula
+	private static final double EXPLORATION = Math.sqrt(2);
+	// Turns after which a playout is stopped and decided by the score
+	private static final int MAX_PLAYOUT = 1000;
+	// Iterations of a single pondering, which limits the size of the tree
+	private static final int MAX_PONDER = 500000;
+	// Stop condition of a search that is only limited by iterations and time
+	private static final BooleanSupplier NEVER = () -> false;
+
+	private int iterations = DEFAULT_ITERATIONS;
+	private long timeLimit = 0;
+	private int threads = 1;
+
+	// Root of the tree of the last turn
+	private Node root;
+
+	// State of the running search that is shared by all threads
+	private AtomicInteger remaining;
+	private long deadline;
+	private BooleanSupplier stopped = NEVER;
+
+	private SearchStatistics statistics = new SearchStatistics();
+
+	/**
+	 * Sets the number of playouts per turn
+	 *
+	 * @param iterations
+	 *            The number of playouts or 0 to only use the time limit
+	 */
+	public void setIterations(int iterations) {
+		this.iterations = iterations;
+	}
+
+	/**
+	 * Sets the time the search may take
+	 *
+	 * @param timeLimit
+	 *            The time limit in milliseconds or 0 to only use the
+	 *            iterations
+	 */
+	public void setTimeLimit(long timeLimit) {
+		this.timeLimit = timeLimit;
+	}
+
+	/**
+	 * Sets the number of threads that search the tree. All but the calling
+	 * thread are taken from the ForkJoinPool of the calling thread, or from
+	 * the common pool if it is not a pool thread.
+	 *
+	 * @param threads
+	 *            The number of threads
+	 */
+	public void setThreads(int threads) {
+		this.threads = Math.max(1, threads);
+	}
+
+	@Override
+	public int calculateTurn(Game game) {
+		return this.calculateTurn(game, NEVER);
+	}
+
+	/**
+	 * Calculates the turn, every thread polls the condition before each
+	 * iteration
+	 */
+	@Override
+	public int calculateTurn(Game game, BooleanSupplier cancelled) {
+		long start = System.nanoTime();
+		this.root = this.findRoot(game.getPosition(), difference(game));
+
+		int iterations = this.iterations;
+		if (iterations <= 0 && this.timeLimit <= 0) {
+			iterations = DEFAULT_ITERATIONS;
+		}
+		// Playouts of earlier turns and of the pondering through the new root
+		// count as well
+		this.remaining = new AtomicInteger(iterations <= 0 ? Integer.MAX_VALUE : iterations - this.root.visits);
+		this.deadline = this.timeLimit <= 0 ? 0 : System.nanoTime() + this.timeLimit * 1000000;
+		this.stopped = cancelled;
+		int depth = this.runWorkers();
+		this.stopped = NEVER;
+		this.statistics.endTurn(System.nanoTime() - start, depth);
+
+		int maxVisits = -1;
+		int maxTurn = 0;
+		for (int i = 0; i < GameBoard.WIDTH; i++) {
+			Node child = this.root.children[i];
+			if (child != null && child.visits > maxVisits) {
+				maxVisits = child.visits;
+				maxTurn = i;
+			}
+		}
+		// A position without any playout left has never been expanded
+		if (maxVisits < 0) {
+			return Integer.numberOfTrailingZeros(this.root.position.legalMoves());
+		}
+		return maxTurn;
+	}
+
+	/**
+	 * Grows the tree below the position of the opponent until it is stopped or
+	 * the tree has reached its size limit. The turns the opponent most likely
+	 * plays get the most iterations.
+	 */
+	@Override
+	public void ponder(Game game, BooleanSupplier stopped) {
+		long start = System.nanoTime();
+		this.root = this.findRoot(game.getPosition(), difference(game));
+		this.remaining = new AtomicInteger(MAX_PONDER);
+		this.deadline = 0;
+		this.stopped = stopped;
+		int depth = this.runWorkers();
+		this.stopped = NEVER;
+		this.statistics.endTurn(System.nanoTime() - start, depth);
+	}
+
+	/**
+	 * Returns the statistics of the last turn or pondering. The nodes are the
+	 * playouts and the depth is the deepest node the tree grew to.
+	 */
+	@Override
+	public SearchStatistics getStatistics() {
+		return statistics;
+	}
+
+	/**
+	 * Runs the iterations with all threads until the search is finished and
+	 * collects their statistics
+	 *
+	 * @return The depth of the deepest node that was visited
+	 */
+	private int runWorkers() {
+		List<Worker> workers = new ArrayList<Worker>();
+		for (int i = 0; i < this.threads; i++) {
+			workers.add(new Worker());
+		}
+		ForkJoinTask.invokeAll(workers);
+		this.statistics = new SearchStatistics();
+		int depth = 0;
+		for (Worker worker : workers) {
+			this.statistics.addSearch(worker.playouts, null, 0, 0);
+			depth = Math.max(depth, worker.depth);
+		}
+		return depth;
+	}
+
+	/**
+	 * Returns the score difference of the game the way the nodes store it
+	 *
+	 * @param game
+	 *            The current state of the game
+	 * @return Score of the first row minus the score of the second row
+	 */
+	private static int difference(Game game) {
+		int difference = game.getCurrentPlayer().getScore() - game.getOpposingPlayer().getScore();
+		return game.getTurn() == 0 ? difference : -difference;
+	}
+
+	/**
+	 * Looks for the position in the tree of the last turn, the position is
+	 * either a child of the old root or a child of one of its children
+	 *
+	 * @param position
+	 *            The current position
+	 * @param difference
+	 *            Score of the first row minus the score of the second row
+	 * @return The node of the position, a new node if it is not in the tree
+	 */
+	private Node findRoot(Position position, int difference) {
+		Node node = new Node(position, difference, 0);
+		if (this.root != null) {
+			for (Node child : this.root.children) {
+				if (child == null) {
+					continue;
+				}
+				if (child.matches(node)) {
+					return child;
+				}
+				for (Node grandchild : child.children) {
+					if (grandchild != null && grandchild.matches(node)) {
+						return grandchild;
+					}
+				}
+			}
+		}
+		return node;
+	}
+
+	/**
+	 * Tells if the search has to stop
+	 *
+	 * @return True if all iterations are used, the time is up or the search
+	 *         was stopped
+	 */
+	private boolean finished() {
+		return this.remaining.getAndDecrement() <= 0 || (this.deadline != 0 && System.nanoTime() > this.deadline)
+				|| this.stopped.getAsBoolean();
+	}
+
+	/**
+	 * Task of a single thread that runs iterations until the search is
+	 * finished
+	 *
+	 * @author Nic Dorner
+	 *
+	 */
+	@SuppressWarnings("serial")
+	private class Worker extends RecursiveAction {
+		// The nodes from the root to the new node of the current iteration
+		private final List<Node> path = new ArrayList<Node>();
+		private long playouts;
+		private int depth;
+
+		@Override
+		protected void compute() {
+			while (!finished()) {
+				this.iterate();
+			}
+		}
+
+		/**
+		 * Runs one iteration: selection, expansion, playout and
+		 * backpropagation
+		 */
+		private void iterate() {
+			this.path.clear();
+			Node node = root;
+			node.visit();
+			this.path.add(node);
+			while (node != null && !node.isTerminal()) {
+				Node next = node.select();
+				next.visit();
+				this.path.add(next);
+				if (next.visits == 1) {
+					break;
+				}
+				node = next;
+			}
+
+			int winner = playout(this.path.get(this.path.size() - 1));
+			this.playouts++;
+			// The root is at depth 0
+			this.depth = Math.max(this.depth, this.path.size() - 1);
+			for (int i = 1; i < this.path.size(); i++) {
+				Node child = this.path.get(i);
+				if (child.player == winner) {
+					child.win();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Plays random turns until the game ends
+	 *
+	 * @param node
+	 *            The node the playout starts from
+	 * @return The row of the player who wins the playout
+	 */
+	private static int playout(Node node) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		Position position = node.position;
+		int difference = node.difference;
+		int seeds = position.getTotalSeeds();
+		for (int i = 0; i < MAX_PLAYOUT && seeds > 2; i++) {
+			int moves = position.legalMoves();
+			if (moves == 0) {
+				position = position.pass();
+				continue;
+			}
+			// Pick a random set bit of the legal columns
+			for (int k = random.nextInt(Integer.bitCount(moves)); k > 0; k--) {
+				moves &= moves - 1;
+			}
+			int side = position.getSideToMove();
+			position = position.play(Integer.numberOfTrailingZeros(moves));
+			int eaten = seeds - position.getTotalSeeds();
+			seeds -= eaten;
+			difference += side == 0 ? eaten / 2 : -eaten / 2;
+		}
+		return winner(difference);
+	}
+
+	/**
+	 * Returns the winner of a game that ended with the given scores
+	 *
+	 * @param difference
+	 *            Score of the first row minus the score of the second row
+	 * @return The row of the winner, the second row wins if the scores are
+	 *         the same
+	 */
+	private static int winner(int difference) {
+		return difference > 0 ? 0 : 1;
+	}
+
+	/**
+	 * A position in the tree together with the results of the playouts that
+	 * passed through it
+	 *
+	 * @author Nic Dorner
+	 *
+	 */
+	private static class Node {
+		private final Position position;
+		// Score of the first row minus the score of the second row
+		private final int difference;
+		// The row of the player who played the turn that lead here
+		private final int player;
+		private final Node[] children = new Node[GameBoard.WIDTH];
+		// Legal columns that have no child yet
+		private int untried;
+		private volatile int visits;
+		private volatile int wins;
+
+		/**
+		 * Creates a node, if the player to move has no seeds the turn is
+		 * passed right away
+		 *
+		 * @param position
+		 *            The position of the node
+		 * @param difference
+		 *            Score of the first row minus the score of the second row
+		 * @param player
+		 *            The row of the player who played the turn that lead here
+		 */
+		public Node(Position position, int difference, int player) {
+			if (position.legalMoves() == 0 && position.getTotalSeeds() > 2) {
+				position = position.pass();
+			}
+			this.position = position;
+			this.difference = difference;
+			this.player = player;
+			this.untried = this.isTerminal() ? 0 : position.legalMoves();
+		}
+
+		/**
+		 * Tells if the game is over in this position
+		 *
+		 * @return True if no more seeds can be eaten
+		 */
+		public boolean isTerminal() {
+			return this.position.getTotalSeeds() <= 2;
+		}
+
+		/**
+		 * Tells if two nodes stand for the same state of the game
+		 *
+		 * @param other
+		 *            The other node
+		 * @return True if the positions and the scores are the same
+		 */
+		public boolean matches(Node other) {
+			return this.position.equals(other.position) && this.difference == other.difference;
+		}
+
+		/**
+		 * Returns a child that has not been tried yet or else the child with
+		 * the highest UCT value
+		 *
+		 * @return The next node on the path
+		 */
+		public synchronized Node select() {
+			if (this.untried != 0) {
+				int column = Integer.numberOfTrailingZeros(this.untried);
+				this.untried &= this.untried - 1;
+				int side = this.position.getSideToMove();
+				Position next = this.position.play(column);
+				int eaten = (this.position.getTotalSeeds() - next.getTotalSeeds()) / 2;
+				Node child = new Node(next, this.difference + (side == 0 ? eaten : -eaten), side);
+				this.children[column] = child;
+				return child;
+			}
+			double log = Math.log(this.visits);
+			double maxValue = Double.NEGATIVE_INFINITY;
+			Node best = null;
+			for (Node child : this.children) {
+				if (child == null) {
+					continue;
+				}
+				int visits = Math.max(1, child.visits);
+				double value = (double) child.wins / visits + EXPLORATION * Math.sqrt(log / visits);
+				if (value > maxValue) {
+					maxValue = value;
+					best = child;
+				}
+			}
+			return best;
+		}
+
+		/**
+		 * Counts a playout through this node
+		 */
+		public synchronized void visit() {
+			this.visits++;
+		}
+
+		/**
+		 * Counts a playout through this node that was won by the player who
+		 * played the turn that lead here
+		 */
+		public synchronized void win() {
+			this.wins++;
+		}
+	}
+}
@@ -1,133 +1,948 @@
 package computerplayer;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
 import gamelogic.Game;
 import gamelogic.GameBoard;
 import gamelogic.Player;
+import monitoring.Events;
 
 /**
  * This class calculates the optimal turn by using the minmax value of each
  * column. The minmax value is determined by the amount of points that can be
  * achieved by this play.
  * 
+ * The search is a principal variation search in negamax form: every value is
+ * seen from the player to move. Only the first column of a position is
+ * searched with the full window, the others are searched with a null window
+ * first and only searched again if they turn out to be better. The columns
+ * that lead to the value are collected as the principal variation.
+ * 
  * @author Nic Dorner
  *
  */
-public class MinMax implements TurnCalculator {
+public class MinMax implements TurnCalculator, Ponderer {
+
+	// Nodes with less remaining depth do not use the transposition table
+	private static final int MIN_TABLE_DEPTH = 2;
+	// Deepest iteration of the iterative deepening
+	private static final int MAX_DEPTH = 100;
+	// Number of nodes between two checks of the time limit
+	private static final int CHECK_INTERVAL = 1024;
+	// Number of plies of a search, every ply uses up one depth and a pass
+	// uses up none
+	private static final int MAX_PLY = MAX_DEPTH + 2;
+	// Sort keys of the move ordering
+	private static final int TABLE_MOVE = Integer.MAX_VALUE;
+	private static final int CAPTURE = 1 << 30;
+	private static final int KILLER = 1 << 29;
+	// Bound of all values, it can be negated without an overflow
+	private static final int INFINITY = Integer.MAX_VALUE;
+	// Stop condition of a search that is only limited by depth and time
+	private static final BooleanSupplier NEVER = () -> false;
 
 	private int depth = 1;
+	private long timeLimit = 0;
+	private boolean parallel = false;
+	private TranspositionTable transpositionTable;
+	private EndgameTable endgameTable;
+	private OpeningBook openingBook;
+	private Solver solver;
+
+	// State of the running search that is shared by all threads
+	private long deadline;
+	private BooleanSupplier stopped = NEVER;
+	private volatile boolean aborted;
+	private boolean horizon;
+	private int[] variation;
+	private int variationValue;
+
+	private int[] principalVariation = new int[0];
+	private int value;
+	private int completedDepth;
+	private SearchStatistics statistics = new SearchStatistics();
 
 	public void setDepth(int depth) {
 		this.depth = depth;
 	}
 
+	/**
+	 * Sets the time the search may take. With a time limit the depth is
+	 * increased one by one until the time is up and the turn of the deepest
+	 * completed search is played.
+	 * 
+	 * @param timeLimit
+	 *            The time limit in milliseconds or 0 to search with the fixed
+	 *            depth
+	 */
+	public void setTimeLimit(long timeLimit) {
+		this.timeLimit = timeLimit;
+	}
+
+	/**
+	 * Enables the parallel search. Every column of the current player is then
+	 * searched by its own task on a copy of the game. The tasks run in the
+	 * ForkJoinPool of the calling thread, or in the common pool if it is not a
+	 * pool thread. The tasks share the best value found so far as alpha value
+	 * and the transposition table.
+	 * 
+	 * @param parallel
+	 *            True to search the columns in parallel
+	 */
+	public void setParallel(boolean parallel) {
+		this.parallel = parallel;
+	}
+
+	/**
+	 * Sets the table that stores already searched positions. The same table
+	 * can be used for several turns and both players.
+	 * 
+	 * @param transpositionTable
+	 *            The table to use or null to search without one
+	 */
+	public void setTranspositionTable(TranspositionTable transpositionTable) {
+		this.transpositionTable = transpositionTable;
+	}
+
+	/**
+	 * Sets the table that holds the solved endgame positions. Positions in
+	 * the table are evaluated by their final result instead of being
+	 * searched.
+	 * 
+	 * @param endgameTable
+	 *            The table to use or null to search without one
+	 */
+	public void setEndgameTable(EndgameTable endgameTable) {
+		this.endgameTable = endgameTable;
+	}
+
+	/**
+	 * Sets the book of the first turns of a game. States in the book are
+	 * answered without a search if the book was searched at least as deep as
+	 * this player would search.
+	 * 
+	 * @param openingBook
+	 *            The book to use or null to search every turn
+	 */
+	public void setOpeningBook(OpeningBook openingBook) {
+		this.openingBook = openingBook;
+	}
+
+	/**
+	 * Sets the solver that proves the value of the current position. With a
+	 * time limit the solver gets half of the time, a position it proves is
+	 * answered with the proven column, otherwise the turn is searched. The
+	 * solver answers quickly if it was opened from a solve of the game.
+	 * 
+	 * @param solver
+	 *            The solver to use or null to search every turn
+	 */
+	public void setSolver(Solver solver) {
+		this.solver = solver;
+	}
+
+	/**
+	 * Returns the turns both players are expected to play according to the
+	 * last completed search. The first column is the calculated turn, passes
+	 * are left out.
+	 * 
+	 * @return The columns of the principal variation, empty if the turn was
+	 *         not searched
+	 */
+	public int[] getPrincipalVariation() {
+		return principalVariation.clone();
+	}
+
+	/**
+	 * Returns the minmax value of the turn of the last search
+	 * 
+	 * @return The value from the perspective of the player who moved, 0 if
+	 *         the turn was not searched
+	 */
+	public int getValue() {
+		return value;
+	}
+
+	/**
+	 * Returns the statistics of the last turn or pondering
+	 */
+	@Override
+	public SearchStatistics getStatistics() {
+		return statistics;
+	}
+
 	@Override
 	public int calculateTurn(Game game) {
+		return this.calculateTurn(game, NEVER);
+	}
+
+	/**
+	 * Calculates the turn, the search polls the condition together with the
+	 * time limit and is aborted within a few thousand nodes
+	 */
+	@Override
+	public int calculateTurn(Game game, BooleanSupplier cancelled) {
+		Object event = Events.ENABLED ? Events.beginSearch() : null;
+		long start = System.nanoTime();
+		this.principalVariation = new int[0];
+		this.value = 0;
+		this.completedDepth = 0;
+		this.statistics = new SearchStatistics();
+		int turn = this.calculate(game, cancelled);
+		this.statistics.endTurn(System.nanoTime() - start, this.completedDepth);
+		if (event != null) {
+			Events.endSearch(event, "MinMax", this.completedDepth, this.statistics.getNodes(), turn);
+		}
+		return turn;
+	}
+
+	/**
+	 * Calculates the turn without a search if the game is lost, solved or in
+	 * the opening book, otherwise with the fixed depth or the time limit
+	 * 
+	 * @param game
+	 *            Current state of the game
+	 * @param cancelled
+	 *            Tells the search to stop
+	 * @return The column to play
+	 */
+	private int calculate(Game game, BooleanSupplier cancelled) {
+		long start = System.nanoTime();
 		// if the other player has won the game by points the minmax player
 		// gives up
 		if (game.getOpposingPlayer().getScore() >= (GameBoard.TOTALSEEDS - 2) / 4) {
 			return new Random().calculateTurn(game);
 		}
 
+		// The best turn of a solved position is known without searching
+		if (this.endgameTable != null && this.endgameTable.contains(game)) {
+			int turn = this.solve(game);
+			this.principalVariation = new int[] { turn };
+			return turn;
+		}
+
+		// The opening was searched deeper offline, a time limit has no fixed
+		// depth to compare with
+		if (this.openingBook != null && (this.timeLimit > 0 || this.openingBook.getDepth() >= this.depth)) {
+			int turn = this.openingBook.probe(game);
+			if (turn != OpeningBook.UNKNOWN) {
+				this.principalVariation = new int[] { turn };
+				return turn;
+			}
+		}
+
+		if (this.solver != null && this.timeLimit > 0) {
+			int turn = this.prove(game, cancelled);
+			if (turn != Solver.ANY) {
+				this.principalVariation = new int[] { turn };
+				return turn;
+			}
+		}
+
+		this.stopped = cancelled;
+		this.aborted = false;
+		if (this.timeLimit <= 0) {
+			this.deadline = 0;
+			int turn = this.search(game, this.depth, -1);
+			this.complete(this.depth);
+			return turn;
+		}
+
+		// The first iteration is never aborted so there is always a turn
+		this.deadline = 0;
+		int maxTurn = this.search(game, 1, -1);
+		this.complete(1);
+		// The time the solver used counts as well
+		this.deadline = start + this.timeLimit * 1000000;
+		for (int depth = 2; depth <= MAX_DEPTH && this.horizon; depth++) {
+			// Search the best turn of the last iteration first
+			int turn = this.search(game, depth, maxTurn);
+			if (this.aborted) {
+				break;
+			}
+			maxTurn = turn;
+			this.complete(depth);
+		}
+		return maxTurn;
+	}
+
+	/**
+	 * Lets the solver prove the current position within half of the time
+	 * limit
+	 * 
+	 * @param game
+	 *            Current state of the game
+	 * @param cancelled
+	 *            Tells the solver to stop
+	 * @return The proven column or ANY if the position was not solved in time
+	 */
+	private int prove(Game game, BooleanSupplier cancelled) {
+		long deadline = System.nanoTime() + this.timeLimit * 1000000 / 2;
+		try {
+			Solver.Solution solution = this.solver.solve(game.getPosition(),
+					() -> cancelled.getAsBoolean() || System.nanoTime() - deadline > 0);
+			this.statistics.addSearch(solution.getNodes(), null, 0, 0);
+			return solution.isSolved() ? solution.getMove() : Solver.ANY;
+		} catch (IOException e) {
+			e.printStackTrace();
+			return Solver.ANY;
+		}
+	}
+
+	/**
+	 * Keeps the result of a search that was not aborted
+	 * 
+	 * @param depth
+	 *            The depth the columns of the current player were searched
+	 *            with
+	 */
+	private void complete(int depth) {
+		this.principalVariation = this.variation;
+		this.value = this.variationValue;
+		// The column of the current player is a turn as well
+		this.completedDepth = depth + 1;
+	}
+
+	/**
+	 * Searches the answers to every turn of the opponent, so the
+	 * transposition table already holds them when the opponent has played.
+	 * All turns of the opponent are searched with the same depth before the
+	 * depth is increased, up to the depth of calculateTurn or without a limit
+	 * if a time limit is set. Pondering needs a transposition table.
+	 */
+	@Override
+	public void ponder(Game game, BooleanSupplier stopped) {
+		if (this.transpositionTable == null) {
+			return;
+		}
+		long start = System.nanoTime();
+		this.statistics = new SearchStatistics();
+		this.stopped = stopped;
+		this.aborted = false;
+		this.deadline = 0;
+		int completed = 0;
+		int maxDepth = this.timeLimit <= 0 ? this.depth : MAX_DEPTH;
+		boolean horizon = true;
+		for (int depth = 1; depth <= maxDepth && horizon && !this.aborted; depth++) {
+			horizon = false;
+			int moves = game.legalMoves();
+			for (int i = 0; i < GameBoard.WIDTH && !this.aborted; i++) {
+				if ((moves >>> i & 1) != 0) {
+					game.playTurn(i);
+					// Nothing to answer if the game is over or the turn is
+					// passed back
+					if (game.legalMoves() != 0) {
+						this.search(game, depth, -1);
+						horizon |= this.horizon;
+					}
+					game.undoTurn();
+				}
+			}
+			if (!this.aborted) {
+				// The turn of the opponent is a turn as well
+				completed = depth + 2;
+			}
+		}
+		this.stopped = NEVER;
+		this.statistics.endTurn(System.nanoTime() - start, completed);
+	}
+
+	/**
+	 * Picks the column that makes the most points until the end of the game
+	 * by looking up the position after each column in the endgame table
+	 * 
+	 * @param game
+	 *            The current state of the game, the position has to be in the
+	 *            endgame table
+	 * @return The column with the highest point differential
+	 */
+	private int solve(Game game) {
 		int maxValue = Integer.MIN_VALUE;
 		int maxTurn = 0;
+		int moves = game.legalMoves();
 		for (int i = 0; i < GameBoard.WIDTH; i++) {
-			if (game.playTurn(i) != -1) {
-				int value;
-				if (game.validatePlayable()) {
-					value = min(game, depth, maxValue, Integer.MAX_VALUE);
-				} else {
-					value = max(game, depth, maxValue, Integer.MAX_VALUE);
-				}
+			if ((moves >>> i & 1) != 0) {
+				int score = game.playTurn(i);
+				// The table holds the points of the opponent who moves next
+				int value = score - this.endgameTable.probe(game);
+				game.undoTurn();
 				if (value > maxValue) {
 					maxValue = value;
 					maxTurn = i;
 				}
-				game.undoTurn();
 			}
 		}
 		return maxTurn;
 	}
 
 	/**
-	 * Maximizing part of the recursive minmax algorithm
+	 * Searches all columns of the current player with the given depth. The
+	 * first column is searched with the full window, the others only have to
+	 * prove that they are better than the best column so far.
 	 * 
 	 * @param game
 	 *            The current state of the game
 	 * @param depth
-	 *            The remaining depth
-	 * @param alpha
-	 *            Aplha cut-off value
-	 * @param beta
-	 *            Beta cut-off value
-	 * @return Minmax value calculated by the evaluate method
-	 */
-	private static int max(Game game, int depth, int alpha, int beta) {
-		int maxValue = alpha;
-		for (int i = 0; i < GameBoard.WIDTH; i++) {
-			if (game.playTurn(i) != -1) {
-				int value = 0;
-				if (game.hasEnded() || depth - 1 <= 0) {
-					value = evaluate(game, game.getOpposingPlayer(), game.getCurrentPlayer());
+	 *            The depth to search each column with
+	 * @param first
+	 *            The column to search first or -1 to search them in order
+	 * @return The column with the highest minmax value
+	 */
+	private int search(Game game, int depth, int first) {
+		if (this.parallel) {
+			return this.searchParallel(game, depth, first);
+		}
+		Search search = new Search(game, depth);
+		int maxValue = -INFINITY;
+		int maxTurn = 0;
+		this.variation = new int[0];
+		int moves = game.legalMoves();
+		for (int j = -1; j < GameBoard.WIDTH && !this.aborted; j++) {
+			// The first column is searched before all others
+			int i = j < 0 ? first : j;
+			if (i < 0 || (j >= 0 && i == first)) {
+				continue;
+			}
+			if ((moves >>> i & 1) != 0) {
+				game.playTurn(i);
+				int value;
+				if (maxValue == -INFINITY) {
+					value = search.root(depth, maxValue, INFINITY);
 				} else {
-					if (game.validatePlayable()) {
-						value = min(game, depth - 1, maxValue, beta);
-					} else {
-						value = max(game, depth - 1, maxValue, beta);
+					value = search.root(depth, maxValue, maxValue + 1);
+					if (value > maxValue) {
+						value = search.root(depth, maxValue, INFINITY);
 					}
 				}
-				game.undoTurn();
 				if (value > maxValue) {
 					maxValue = value;
-					if (maxValue >= beta) {
-						break;
-					}
+					maxTurn = i;
+					this.variation = search.variation(i);
+					this.variationValue = value;
 				}
+				game.undoTurn();
 			}
 		}
-		return maxValue;
+		this.horizon = search.horizon;
+		search.addStatistics();
+		return maxTurn;
 	}
 
 	/**
-	 * Mimimizing part of the recursive minmax algorithm
+	 * Searches all columns of the current player in parallel. Every task uses
+	 * the best value found so far as alpha value, a column that does not
+	 * exceed the alpha value it was searched with can not be the best one. If
+	 * several columns have the same value the one the sequential search would
+	 * pick wins, so both searches play the same turn.
 	 * 
 	 * @param game
 	 *            The current state of the game
 	 * @param depth
-	 *            The remaining depth
-	 * @param alpha
-	 *            Aplha cut-off value
-	 * @param beta
-	 *            Beta cut-off value
-	 * @return Minmax value calculated by the evaluate method
-	 */
-	private static int min(Game game, int depth, int alpha, int beta) {
-		int minValue = beta;
+	 *            The depth to search each column with
+	 * @param first
+	 *            The column that is searched first by the sequential search or
+	 *            -1
+	 * @return The column with the highest minmax value
+	 */
+	private int searchParallel(Game game, int depth, int first) {
+		AtomicLong best = new AtomicLong(Long.MIN_VALUE);
+		List<RootTask> tasks = new ArrayList<RootTask>();
+		int moves = game.legalMoves();
 		for (int i = 0; i < GameBoard.WIDTH; i++) {
-			if (game.playTurn(i) != -1) {
-				int value = 0;
-				if (game.hasEnded() || depth - 1 <= 0) {
-					value = evaluate(game, game.getCurrentPlayer(), game.getOpposingPlayer());
+			if ((moves >>> i & 1) != 0) {
+				tasks.add(new RootTask(new Game(game), i, i == first ? -1 : i, depth, best));
+			}
+		}
+		// The calling thread searches one column itself, the others are
+		// forked into the pool of the calling thread
+		ForkJoinTask.invokeAll(tasks);
+
+		long maxKey = Long.MIN_VALUE;
+		int maxTurn = 0;
+		this.horizon = false;
+		this.variation = new int[0];
+		for (RootTask task : tasks) {
+			int value = task.getRawResult();
+			this.horizon |= task.search.horizon;
+			task.search.addStatistics();
+			if (value <= task.alpha) {
+				continue;
+			}
+			long key = rootKey(value, task.rank);
+			if (key > maxKey) {
+				maxKey = key;
+				maxTurn = task.column;
+				this.variation = task.variation;
+				this.variationValue = value;
+			}
+		}
+		return maxTurn;
+	}
+
+	/**
+	 * Combines the value and the rank of a column of the parallel search so
+	 * that a better column has a higher key
+	 * 
+	 * @param value
+	 *            The minmax value of the column
+	 * @param rank
+	 *            Order of the column in the sequential search
+	 * @return The combined key
+	 */
+	private static long rootKey(int value, int rank) {
+		return (long) value * 8 + (GameBoard.WIDTH - rank);
+	}
+
+	/**
+	 * Task that searches a single column of the current player on its own copy
+	 * of the game
+	 * 
+	 * @author Nic Dorner
+	 *
+	 */
+	@SuppressWarnings("serial")
+	private class RootTask extends RecursiveTask<Integer> {
+		private final Search search;
+		private final int column;
+		private final int rank;
+		private final int depth;
+		private final AtomicLong best;
+		private int alpha;
+		private int[] variation;
+
+		/**
+		 * Creates the task
+		 * 
+		 * @param game
+		 *            The copy of the game to search on
+		 * @param column
+		 *            The column to search
+		 * @param rank
+		 *            Order of the column in the sequential search, lower
+		 *            ranks win if the values are the same
+		 * @param depth
+		 *            The depth to search the column with
+		 * @param best
+		 *            Value and rank of the best column so far, shared by all
+		 *            tasks
+		 */
+		public RootTask(Game game, int column, int rank, int depth, AtomicLong best) {
+			this.search = new Search(game, depth);
+			this.column = column;
+			this.rank = rank;
+			this.depth = depth;
+			this.best = best;
+		}
+
+		@Override
+		protected Integer compute() {
+			long key = this.best.get();
+			this.alpha = -INFINITY;
+			if (key != Long.MIN_VALUE) {
+				this.alpha = (int) Math.floorDiv(key, 8);
+				// The same value is good enough if this column comes first
+				if (GameBoard.WIDTH - (int) (key & 7) > this.rank) {
+					this.alpha--;
+				}
+			}
+			this.search.game.playTurn(this.column);
+			int value;
+			if (this.alpha == -INFINITY) {
+				value = this.search.root(this.depth, this.alpha, INFINITY);
+			} else {
+				value = this.search.root(this.depth, this.alpha, this.alpha + 1);
+				if (value > this.alpha) {
+					value = this.search.root(this.depth, this.alpha, INFINITY);
+				}
+			}
+			this.variation = this.search.variation(this.column);
+			this.search.game.undoTurn();
+			if (!aborted && value > this.alpha) {
+				this.best.accumulateAndGet(rootKey(value, this.rank), Math::max);
+			}
+			return value;
+		}
+	}
+
+	/**
+	 * The recursive part of the search. Every thread uses its own instance
+	 * with its own game, so the nodes can be searched without locking.
+	 * 
+	 * @author Nic Dorner
+	 *
+	 */
+	private class Search {
+		private final Game game;
+		private long nodes;
+		private boolean horizon;
+
+		// Counters for the statistics, the cut-offs are indexed by the
+		// distance to the root column
+		private final long[] cutoffs;
+		private long tableProbes;
+		private long tableHits;
+
+		// Move ordering: the columns of each ply sorted by their key, two
+		// columns per ply that caused a cut-off without eating seeds and a
+		// history of cut-offs for each row and column
+		private final int[][] moves = new int[MAX_PLY][GameBoard.WIDTH];
+		private final int[][] keys = new int[MAX_PLY][GameBoard.WIDTH];
+		private final int[][] killers = new int[MAX_PLY][2];
+		private final int[][] history = new int[GameBoard.HEIGHT][GameBoard.WIDTH];
+		// The best columns found below each ply, the columns of a ply are
+		// copied to the ply above when they raise its value
+		private final int[][] variation;
+		private final int[] variationLength;
+
+		/**
+		 * Creates the search
+		 * 
+		 * @param game
+		 *            The game to search on
+		 * @param depth
+		 *            The depth the root columns are searched with, every ply
+		 *            uses up one depth
+		 */
+		public Search(Game game, int depth) {
+			this.game = game;
+			this.variation = new int[depth + 2][depth + 1];
+			this.variationLength = new int[depth + 2];
+			this.cutoffs = new long[depth + 2];
+			for (int[] killer : this.killers) {
+				killer[0] = -1;
+				killer[1] = -1;
+			}
+		}
+
+		/**
+		 * Searches the position after a column of the root player was played
+		 * 
+		 * @param depth
+		 *            The remaining depth
+		 * @param alpha
+		 *            Aplha cut-off value
+		 * @param beta
+		 *            Beta cut-off value
+		 * @return Minmax value of the played column
+		 */
+		private int root(int depth, int alpha, int beta) {
+			this.variationLength[0] = 0;
+			if (this.game.hasEnded()) {
+				return evaluate(this.game, this.game.getOpposingPlayer(), this.game.getCurrentPlayer());
+			}
+			return this.child(depth, 0, alpha, beta);
+		}
+
+		/**
+		 * Adds the counters of this search to the statistics of the turn
+		 */
+		private void addStatistics() {
+			statistics.addSearch(this.nodes, this.cutoffs, this.tableProbes, this.tableHits);
+		}
+
+		/**
+		 * Returns the principal variation of the last search of a root column
+		 * 
+		 * @param column
+		 *            The root column that was searched
+		 * @return The column followed by the best columns of both players,
+		 *         passes are left out
+		 */
+		private int[] variation(int column) {
+			int[] variation = new int[this.variationLength[0] + 1];
+			variation[0] = column;
+			System.arraycopy(this.variation[0], 0, variation, 1, this.variationLength[0]);
+			return variation;
+		}
+
+		/**
+		 * Sorts the columns of the current player: the best column of the
+		 * transposition table first, then columns that eat seeds by the number
+		 * of eaten seeds, then the killer columns of this ply and the rest by
+		 * their history
+		 * 
+		 * @param ply
+		 *            Distance to the root of the search
+		 * @param tableMove
+		 *            The best column of the transposition table or -1
+		 * @param legalMoves
+		 *            The playable columns as returned by Game.legalMoves
+		 * @return The sorted columns, the playable ones first; the array is
+		 *         reused for this ply
+		 */
+		private int[] orderMoves(int ply, int tableMove, int legalMoves) {
+			int[] moves = this.moves[ply];
+			int[] keys = this.keys[ply];
+			int turn = this.game.getTurn();
+			GameBoard gameBoard = this.game.getGameBoard();
+			for (int i = 0; i < GameBoard.WIDTH; i++) {
+				int key;
+				if ((legalMoves >>> i & 1) == 0) {
+					key = Integer.MIN_VALUE;
+				} else if (i == tableMove) {
+					key = TABLE_MOVE;
 				} else {
-					if (game.validatePlayable()) {
-						value = max(game, depth - 1, alpha, minValue);
+					int captures = gameBoard.getCaptures(turn, i);
+					if (captures > 0) {
+						key = CAPTURE + captures;
+					} else if (i == this.killers[ply][0]) {
+						key = KILLER + 1;
+					} else if (i == this.killers[ply][1]) {
+						key = KILLER;
 					} else {
-						value = min(game, depth - 1, alpha, minValue);
+						key = Math.min(this.history[turn][i], KILLER - 1);
 					}
 				}
-				game.undoTurn();
-				if (value < minValue) {
-					minValue = value;
-					if (minValue <= alpha) {
+				// Insertion sort, the earlier column wins if keys are equal
+				int j = i;
+				while (j > 0 && keys[j - 1] < key) {
+					keys[j] = keys[j - 1];
+					moves[j] = moves[j - 1];
+					j--;
+				}
+				keys[j] = key;
+				moves[j] = i;
+			}
+			return moves;
+		}
+
+		/**
+		 * Remembers a column that caused a cut-off for the move ordering
+		 * 
+		 * @param ply
+		 *            Distance to the root of the search
+		 * @param depth
+		 *            The remaining depth
+		 * @param column
+		 *            The column that caused the cut-off
+		 * @param key
+		 *            The key the column was sorted with
+		 */
+		private void cutoff(int ply, int depth, int column, int key) {
+			// Columns that eat seeds are sorted to the front anyway
+			if (key >= CAPTURE) {
+				return;
+			}
+			int[] killer = this.killers[ply];
+			if (killer[0] != column) {
+				killer[1] = killer[0];
+				killer[0] = column;
+			}
+			this.history[this.game.getTurn()][column] += depth * depth;
+		}
+
+		/**
+		 * Counts a searched node and checks if the time is up or the search
+		 * was stopped
+		 * 
+		 * @return True if the search has to be aborted
+		 */
+		private boolean checkTime() {
+			if (++this.nodes % CHECK_INTERVAL == 0
+					&& ((deadline != 0 && System.nanoTime() > deadline) || stopped.getAsBoolean())) {
+				aborted = true;
+			}
+			return aborted;
+		}
+
+		/**
+		 * Searches the position after a turn from the perspective of the
+		 * player who played it. If the next player has no seeds the turn is
+		 * passed back without using up depth.
+		 * 
+		 * @param depth
+		 *            The remaining depth
+		 * @param ply
+		 *            Distance to the root of the search
+		 * @param alpha
+		 *            Aplha cut-off value
+		 * @param beta
+		 *            Beta cut-off value
+		 * @return Minmax value for the player who played the turn
+		 */
+		private int child(int depth, int ply, int alpha, int beta) {
+			if (this.game.legalMoves() != 0) {
+				return -this.negamax(depth, ply, -beta, -alpha);
+			}
+			this.game.passTurn();
+			int value = this.negamax(depth, ply, alpha, beta);
+			this.game.undoTurn();
+			return value;
+		}
+
+		/**
+		 * The recursive principal variation search. The first column is
+		 * searched with the full window, all other columns only with a null
+		 * window that tells if they are better than the best column so far. A
+		 * column that turns out to be better is searched again with the full
+		 * window to get its exact value.
+		 * 
+		 * @param depth
+		 *            The remaining depth
+		 * @param ply
+		 *            Distance to the root of the search
+		 * @param alpha
+		 *            Aplha cut-off value
+		 * @param beta
+		 *            Beta cut-off value
+		 * @return Minmax value for the player to move calculated by the
+		 *         evaluate method
+		 */
+		private int negamax(int depth, int ply, int alpha, int beta) {
+			this.variationLength[ply] = 0;
+			if (endgameTable != null && endgameTable.contains(this.game)) {
+				return Math.max(alpha, evaluate(this.game, this.game.getCurrentPlayer(), this.game.getOpposingPlayer()));
+			}
+
+			// Mirror images can not share their entry, the second row wins a
+			// game that ends with the same scores
+			long hash = this.game.getHash();
+			long entry = this.probe(hash, depth);
+			int tableMove = -1;
+			if (entry != 0) {
+				tableMove = TranspositionTable.getMove(entry);
+				int value = this.lookup(entry, depth, alpha, beta);
+				if (value != Integer.MIN_VALUE) {
+					this.horizon = true;
+					return Math.max(alpha, value);
+				}
+			}
+
+			int maxValue = alpha;
+			int maxTurn = -1;
+			int legalMoves = this.game.legalMoves();
+			int[] moves = this.orderMoves(ply, tableMove, legalMoves);
+			// The playable columns are sorted to the front
+			for (int k = 0; k < Integer.bitCount(legalMoves); k++) {
+				int i = moves[k];
+				this.game.playTurn(i);
+				this.variationLength[ply + 1] = 0;
+				int value = 0;
+				if (!this.game.hasEnded() && depth - 1 <= 0) {
+					this.horizon = true;
+				}
+				if (this.game.hasEnded() || depth - 1 <= 0) {
+					value = evaluate(this.game, this.game.getOpposingPlayer(), this.game.getCurrentPlayer());
+				} else if (k == 0) {
+					value = this.child(depth - 1, ply + 1, maxValue, beta);
+				} else {
+					value = this.child(depth - 1, ply + 1, maxValue, maxValue + 1);
+					if (value > maxValue && value < beta) {
+						value = this.child(depth - 1, ply + 1, maxValue, beta);
+					}
+				}
+				this.game.undoTurn();
+				if (this.checkTime()) {
+					return maxValue;
+				}
+				if (value > maxValue) {
+					maxValue = value;
+					maxTurn = i;
+					if (maxValue >= beta) {
+						this.cutoffs[ply + 1]++;
+						this.cutoff(ply, depth, i, this.keys[ply][k]);
 						break;
 					}
+					this.variation[ply][0] = i;
+					System.arraycopy(this.variation[ply + 1], 0, this.variation[ply], 1, this.variationLength[ply + 1]);
+					this.variationLength[ply] = this.variationLength[ply + 1] + 1;
 				}
 			}
+			this.store(hash, depth, maxValue, alpha, beta, maxTurn);
+			return maxValue;
+		}
+
+		/**
+		 * Looks up a position in the transposition table
+		 * 
+		 * @param hash
+		 *            Zobrist hash of the position
+		 * @param depth
+		 *            The remaining depth
+		 * @return The packed entry or 0 if there is none
+		 */
+		private long probe(long hash, int depth) {
+			// Nodes right above the leaves are cheaper to search than to look up
+			if (transpositionTable == null || depth < MIN_TABLE_DEPTH) {
+				return 0;
+			}
+			long entry = transpositionTable.probe(hash);
+			this.tableProbes++;
+			if (entry != 0) {
+				this.tableHits++;
+			}
+			return entry;
+		}
+
+		/**
+		 * Checks if a stored entry decides the value of a node without searching
+		 * it again
+		 * 
+		 * @param entry
+		 *            The packed entry of the transposition table
+		 * @param depth
+		 *            The remaining depth
+		 * @param alpha
+		 *            Aplha cut-off value
+		 * @param beta
+		 *            Beta cut-off value
+		 * @return The value for the player to move or Integer.MIN_VALUE if the
+		 *         node has to be searched
+		 */
+		private int lookup(long entry, int depth, int alpha, int beta) {
+			if (TranspositionTable.getDepth(entry) < depth) {
+				return Integer.MIN_VALUE;
+			}
+			int value = TranspositionTable.getValue(entry);
+			int bound = TranspositionTable.getBound(entry);
+			if (bound == TranspositionTable.EXACT || (bound == TranspositionTable.LOWER && value >= beta)
+					|| (bound == TranspositionTable.UPPER && value <= alpha)) {
+				return value;
+			}
+			return Integer.MIN_VALUE;
+		}
+
+		/**
+		 * Stores the result of a searched node in the transposition table
+		 * 
+		 * @param hash
+		 *            Zobrist hash of the position
+		 * @param depth
+		 *            The remaining depth
+		 * @param value
+		 *            The result for the player to move
+		 * @param alpha
+		 *            Aplha cut-off value the node was searched with
+		 * @param beta
+		 *            Beta cut-off value the node was searched with
+		 * @param turn
+		 *            The best column or -1 if no column raised the value
+		 */
+		private void store(long hash, int depth, int value, int alpha, int beta, int turn) {
+			// Results of aborted searches are incomplete and must not be stored
+			if (transpositionTable == null || depth < MIN_TABLE_DEPTH || this.game.hasEnded() || aborted) {
+				return;
+			}
+			int bound = TranspositionTable.EXACT;
+			if (value <= alpha) {
+				bound = TranspositionTable.UPPER;
+			} else if (value >= beta) {
+				bound = TranspositionTable.LOWER;
+			}
+			transpositionTable.store(hash, depth, bound, value, turn);
 		}
-		return minValue;
 	}
 
 	/**
-	 * Evaluete the minmax value to return by the recursive funtion
+	 * Evaluete the minmax value to return by the recursive funtion. Positions
+	 * in the endgame table are evaluated like the end of the game they lead
+	 * to.
 	 * 
 	 * @param game
 	 *            The current state of the game
@@ -138,7 +953,7 @@ public class MinMax implements TurnCalculator {
 	 * @return The current value of the game from the perspective of the
 	 *         maximizing player
 	 */
-	private static int evaluate(Game game, Player max, Player min) {
+	private int evaluate(Game game, Player max, Player min) {
 		if (game.hasEnded()) {
 			if (game.getWinner().equals(max)) {
 				return 24;
@@ -148,6 +963,14 @@ public class MinMax implements TurnCalculator {
 			}
 		}
 
-		return max.getScore() - min.getScore();
+		int difference = max.getScore() - min.getScore();
+		int future = this.endgameTable == null ? EndgameTable.UNKNOWN : this.endgameTable.probe(game);
+		if (future != EndgameTable.UNKNOWN) {
+			difference += game.getCurrentPlayer() == max ? future : -future;
+			// The player of the second row wins if the scores are the same
+			Player second = game.getTurn() == 1 ? game.getCurrentPlayer() : game.getOpposingPlayer();
+			return difference > 0 || (difference == 0 && second == max) ? 24 : -24;
+		}
+		return difference;
 	}
 }
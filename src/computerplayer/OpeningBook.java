@@ -0,0 +1,270 @@
+package computerplayer;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import gamelogic.Game;
+import gamelogic.GameBoard;
+import gamelogic.Player;
+
+/**
+ * Book of the best turns of the first plies of a game. Every state that can
+ * be reached within a few plies from the start is searched offline with a
+ * deep fixed depth, so the computer player can answer these states without
+ * searching.
+ * 
+ * The turns are kept in an open addressing hash table keyed by the hash of
+ * the game. Mirror images have entries of their own, because the turns are
+ * those of MinMax, for which a game that ends with the same scores is won by
+ * the second row. A lookup reads a single entry in most cases. The table is
+ * written to a file that is memory mapped when opened, only the pages that
+ * are looked up are read.
+ * 
+ * @author Nic Dorner
+ *
+ */
+public class OpeningBook {
+
+	/** Returned by probe for states that are not in the book */
+	public static final int UNKNOWN = -1;
+
+	// Identifies a book file, "URBK"
+	private static final int MAGIC = 0x5552424B;
+	// Size of the header: magic number, depth and number of entries
+	private static final int HEADER = 12;
+	// An entry is the hash followed by the column plus one, a zero column
+	// marks an empty entry
+	private static final int ENTRY_SIZE = 9;
+	// Size of the transposition table used while the book is generated
+	private static final int TABLE_SIZE = 64;
+
+	private final int depth;
+	private final int mask;
+	private final ByteBuffer data;
+
+	/**
+	 * Constructor that wraps the entries
+	 * 
+	 * @param depth
+	 *            The depth the turns were searched with
+	 * @param entries
+	 *            The number of entries, a power of two
+	 * @param data
+	 *            The entries
+	 */
+	private OpeningBook(int depth, int entries, ByteBuffer data) {
+		this.depth = depth;
+		this.mask = entries - 1;
+		this.data = data;
+	}
+
+	/**
+	 * Opens a book file created by {@link #write(File)}. The file is memory
+	 * mapped and read lazily while the book is probed.
+	 * 
+	 * @param file
+	 *            The book file
+	 * @throws IOException
+	 *             Thrown if the file can not be read or is not a book
+	 * @return The book
+	 */
+	public static OpeningBook open(File file) throws IOException {
+		try (RandomAccessFile input = new RandomAccessFile(file, "r")) {
+			if (input.length() < HEADER || input.readInt() != MAGIC) {
+				throw new IOException(file + " is not an opening book");
+			}
+			int depth = input.readInt();
+			int entries = input.readInt();
+			if (entries <= 0 || Integer.bitCount(entries) != 1
+					|| input.length() != HEADER + (long) entries * ENTRY_SIZE) {
+				throw new IOException(file + " is damaged");
+			}
+			// The mapping stays valid after the file is closed
+			ByteBuffer data = input.getChannel().map(FileChannel.MapMode.READ_ONLY, HEADER, input.length() - HEADER);
+			return new OpeningBook(depth, entries, data);
+		}
+	}
+
+	/**
+	 * Creates a book by searching every state that can be reached within the
+	 * given number of plies from the start of the game
+	 * 
+	 * @param plies
+	 *            The number of turns from the start that are in the book
+	 * @param depth
+	 *            The depth each state is searched with
+	 * @throws IllegalArgumentException
+	 *             Thrown if the book would be too large
+	 * @return The book
+	 */
+	public static OpeningBook generate(int plies, int depth) {
+		Game game = new Game(new GameBoard(), new Player("A"), new Player("B"));
+		MinMax minMax = new MinMax();
+		minMax.setDepth(depth);
+		minMax.setTranspositionTable(new TranspositionTable(TABLE_SIZE));
+		Map<Long, Integer> turns = new LinkedHashMap<>();
+		collect(game, plies, minMax, turns);
+
+		// At most half of the entries are used, so the runs stay short
+		long entries = Long.highestOneBit(Math.max(1, turns.size())) * 4;
+		if (entries * ENTRY_SIZE > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("A book with " + plies + " plies is too large.");
+		}
+		OpeningBook book = new OpeningBook(depth, (int) entries, ByteBuffer.allocate((int) entries * ENTRY_SIZE));
+		for (Map.Entry<Long, Integer> turn : turns.entrySet()) {
+			book.put(turn.getKey(), turn.getValue());
+		}
+		return book;
+	}
+
+	/**
+	 * Searches the current state and all states that follow within the given
+	 * number of plies
+	 * 
+	 * @param game
+	 *            The current state of the game
+	 * @param plies
+	 *            The number of remaining turns
+	 * @param minMax
+	 *            The player that searches the states
+	 * @param turns
+	 *            Receives the column by hash
+	 */
+	private static void collect(Game game, int plies, MinMax minMax, Map<Long, Integer> turns) {
+		if (plies <= 0 || game.hasEnded()) {
+			return;
+		}
+		int moves = game.legalMoves();
+		if (moves == 0) {
+			// A pass is not a ply of its own
+			game.passTurn();
+			collect(game, plies, minMax, turns);
+			game.undoTurn();
+			return;
+		}
+		long hash = game.getHash();
+		if (turns.containsKey(hash)) {
+			return;
+		}
+		turns.put(hash, minMax.calculateTurn(game));
+		for (int i = 0; i < GameBoard.WIDTH; i++) {
+			if ((moves >>> i & 1) != 0) {
+				game.playTurn(i);
+				collect(game, plies - 1, minMax, turns);
+				game.undoTurn();
+			}
+		}
+	}
+
+	/**
+	 * Writes the book to a file that can be opened with {@link #open(File)}
+	 * 
+	 * @param file
+	 *            The book file
+	 * @throws IOException
+	 *             Thrown if the file can not be written
+	 */
+	public void write(File file) throws IOException {
+		try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+			output.writeInt(MAGIC);
+			output.writeInt(this.depth);
+			output.writeInt(this.mask + 1);
+			ByteBuffer data = this.data.duplicate();
+			data.clear();
+			byte[] buffer = new byte[1 << 16];
+			while (data.hasRemaining()) {
+				int length = Math.min(buffer.length, data.remaining());
+				data.get(buffer, 0, length);
+				output.write(buffer, 0, length);
+			}
+		}
+	}
+
+	/**
+	 * Looks up the best turn of the current state of a game
+	 * 
+	 * @param game
+	 *            The game to look up
+	 * @return The column to play or UNKNOWN if the state is not in the book
+	 */
+	public int probe(Game game) {
+		long hash = game.getHash();
+		for (int slot = this.slot(hash);; slot = (slot + 1) & this.mask) {
+			int column = this.data.get(slot * ENTRY_SIZE + Long.BYTES) - 1;
+			if (column == UNKNOWN) {
+				return UNKNOWN;
+			}
+			if (this.data.getLong(slot * ENTRY_SIZE) == hash) {
+				return column;
+			}
+		}
+	}
+
+	/**
+	 * Adds the turn of a state to the book
+	 * 
+	 * @param hash
+	 *            The hash of the state
+	 * @param column
+	 *            The column to play
+	 */
+	private void put(long hash, int column) {
+		int slot = this.slot(hash);
+		while (this.data.get(slot * ENTRY_SIZE + Long.BYTES) != 0) {
+			slot = (slot + 1) & this.mask;
+		}
+		this.data.putLong(slot * ENTRY_SIZE, hash);
+		this.data.put(slot * ENTRY_SIZE + Long.BYTES, (byte) (column + 1));
+	}
+
+	/**
+	 * Maps a hash to the first entry of its run
+	 * 
+	 * @param hash
+	 *            The hash of the state
+	 * @return Index of the entry
+	 */
+	private int slot(long hash) {
+		return (int) hash & this.mask;
+	}
+
+	/**
+	 * Returns the depth the turns of the book were searched with
+	 * 
+	 * @return The depth passed to the computer player
+	 */
+	public int getDepth() {
+		return this.depth;
+	}
+
+	/**
+	 * Creates a book file
+	 * 
+	 * @param args
+	 *            The number of plies (default 4), the search depth (default
+	 *            14) and the name of the file (default opening.book)
+	 */
+	public static void main(String[] args) {
+		int plies = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+		int depth = args.length > 1 ? Integer.parseInt(args[1]) : 14;
+		File file = new File(args.length > 2 ? args[2] : "opening.book");
+		long start = System.currentTimeMillis();
+		OpeningBook book = generate(plies, depth);
+		try {
+			book.write(file);
+		} catch (IOException e) {
+			e.printStackTrace();
+			return;
+		}
+		System.out.println("Searched all states of the first " + plies + " plies with depth " + book.getDepth()
+				+ " in " + (System.currentTimeMillis() - start) + " ms, written to " + file);
+	}
+}
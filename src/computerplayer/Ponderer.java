@@ -0,0 +1,28 @@
+package computerplayer;
+
+import java.util.function.BooleanSupplier;
+
+import gamelogic.Game;
+
+/**
+ * Interface for turn calculators that can think while the opponent chooses
+ * its turn. What is found is kept, so the next turn is calculated faster if
+ * the opponent plays one of the turns that were searched.
+ * 
+ * @author Nic Dorner
+ *
+ */
+public interface Ponderer {
+	/**
+	 * Searches the turns of the opponent and the answers to them until there
+	 * is nothing left to search or the search is stopped
+	 * 
+	 * @param game
+	 *            Current state of the game with the opponent to move, the game
+	 *            is used by the search and must not be changed by anyone else
+	 * @param stopped
+	 *            Tells the search to stop, it is polled regularly and the
+	 *            search returns soon after it becomes true
+	 */
+	public void ponder(Game game, BooleanSupplier stopped);
+}
@@ -1,10 +1,12 @@
 package computerplayer;
 
+import java.util.concurrent.ThreadLocalRandom;
+
 import gamelogic.Game;
-import gamelogic.GameBoard;
 
 /**
- * This class calculates a random turn.
+ * This class calculates a random turn. Every playable column is choosen with
+ * the same chance.
  * 
  * @author Nic Dorner
  *
@@ -13,14 +15,12 @@ public class Random implements TurnCalculator {
 
 	@Override
 	public int calculateTurn(Game game) {
-		int result;
-		int random;
-		do {
-			random = (int) Math.round((Math.random() * (GameBoard.WIDTH - 1)));
-			result = game.playTurn(random);
-		} while (result == -1);
-		game.undoTurn();
-		return random;
+		int moves = game.legalMoves();
+		// Skip a random number of playable columns
+		for (int k = ThreadLocalRandom.current().nextInt(Integer.bitCount(moves)); k > 0; k--) {
+			moves &= moves - 1;
+		}
+		return Integer.numberOfTrailingZeros(moves);
 	}
 
 }
@@ -0,0 +1,200 @@
+package computerplayer;
+
+import java.util.Arrays;
+
+/**
+ * Counters of the search of a computer player. The counters of a single turn
+ * are filled by the player, the statistics of several turns can be added up
+ * to get the numbers of a whole session. The class is not thread safe, a
+ * player only fills it after all threads of its search are done.
+ * 
+ * @author Nic Dorner
+ *
+ */
+public class SearchStatistics {
+	private int turns;
+	private long nodes;
+	// Cut-offs by the distance to the root, the root itself is ply 0
+	private long[] cutoffs = new long[0];
+	private long tableProbes;
+	private long tableHits;
+	private long nanos;
+	private int depth;
+	private long depthSum;
+	private double branchingSum;
+
+	/**
+	 * Adds the counters of a part of the search, for example of one thread or
+	 * one iteration of the iterative deepening
+	 * 
+	 * @param nodes
+	 *            The number of searched nodes
+	 * @param cutoffs
+	 *            The number of cut-offs by ply or null if there are none
+	 * @param tableProbes
+	 *            The number of lookups in the transposition table
+	 * @param tableHits
+	 *            The number of lookups that found an entry
+	 */
+	void addSearch(long nodes, long[] cutoffs, long tableProbes, long tableHits) {
+		this.nodes += nodes;
+		if (cutoffs != null) {
+			this.addCutoffs(cutoffs);
+		}
+		this.tableProbes += tableProbes;
+		this.tableHits += tableHits;
+	}
+
+	/**
+	 * Completes the statistics of a single turn
+	 * 
+	 * @param nanos
+	 *            The time the turn took in nanoseconds
+	 * @param depth
+	 *            The number of turns the completed search looked ahead, 0 if
+	 *            the turn was not searched
+	 */
+	public void endTurn(long nanos, int depth) {
+		this.turns = 1;
+		this.nanos = nanos;
+		this.depth = depth;
+		this.depthSum = depth;
+		this.branchingSum = branchingFactor(this.nodes, depth);
+	}
+
+	/**
+	 * Adds the statistics of other turns to this statistics
+	 * 
+	 * @param other
+	 *            The statistics to add
+	 */
+	public void add(SearchStatistics other) {
+		this.turns += other.turns;
+		this.nodes += other.nodes;
+		this.addCutoffs(other.cutoffs);
+		this.tableProbes += other.tableProbes;
+		this.tableHits += other.tableHits;
+		this.nanos += other.nanos;
+		this.depth = Math.max(this.depth, other.depth);
+		this.depthSum += other.depthSum;
+		this.branchingSum += other.branchingSum;
+	}
+
+	private void addCutoffs(long[] cutoffs) {
+		if (cutoffs.length > this.cutoffs.length) {
+			this.cutoffs = Arrays.copyOf(this.cutoffs, cutoffs.length);
+		}
+		for (int i = 0; i < cutoffs.length; i++) {
+			this.cutoffs[i] += cutoffs[i];
+		}
+	}
+
+	/**
+	 * Calculates the branching factor a uniform tree with the same number of
+	 * nodes and the same depth would have
+	 * 
+	 * @param nodes
+	 *            The number of nodes
+	 * @param depth
+	 *            The depth of the tree
+	 * @return The effective branching factor or 0 if nothing was searched
+	 */
+	private static double branchingFactor(long nodes, int depth) {
+		if (nodes <= 0 || depth <= 0) {
+			return 0;
+		}
+		return Math.pow(nodes, 1.0 / depth);
+	}
+
+	public int getTurns() {
+		return turns;
+	}
+
+	public long getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * Returns the cut-offs of the alpha beta search
+	 * 
+	 * @return The number of cut-offs indexed by the distance to the root
+	 */
+	public long[] getCutoffs() {
+		return cutoffs.clone();
+	}
+
+	public long getTotalCutoffs() {
+		long total = 0;
+		for (long count : cutoffs) {
+			total += count;
+		}
+		return total;
+	}
+
+	public long getTableProbes() {
+		return tableProbes;
+	}
+
+	public long getTableHits() {
+		return tableHits;
+	}
+
+	/**
+	 * Returns the share of lookups in the transposition table that found an
+	 * entry
+	 * 
+	 * @return Hits divided by lookups or 0 if there were no lookups
+	 */
+	public double getTableHitRate() {
+		return tableProbes == 0 ? 0 : (double) tableHits / tableProbes;
+	}
+
+	public long getNanos() {
+		return nanos;
+	}
+
+	/**
+	 * Returns the deepest completed search
+	 * 
+	 * @return The number of turns the search looked ahead
+	 */
+	public int getDepth() {
+		return depth;
+	}
+
+	/**
+	 * Returns the average depth of the completed searches
+	 * 
+	 * @return Turns the search looked ahead per turn
+	 */
+	public double getAverageDepth() {
+		return turns == 0 ? 0 : (double) depthSum / turns;
+	}
+
+	/**
+	 * Returns the effective branching factor, the number of turns per node a
+	 * uniform tree of the same size and depth would have. For several turns
+	 * the average of the turns is returned.
+	 * 
+	 * @return The effective branching factor or 0 if nothing was searched
+	 */
+	public double getEffectiveBranchingFactor() {
+		return turns == 0 ? 0 : branchingSum / turns;
+	}
+
+	/**
+	 * Returns the speed of the search
+	 * 
+	 * @return Searched nodes per second
+	 */
+	public double getNodesPerSecond() {
+		return nanos == 0 ? 0 : nodes * 1e9 / nanos;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("Depth %d, %d nodes in %.1f ms (%.0f knodes/s), EBF %.2f, %d cut-offs, %.0f%% table hits",
+				depth, nodes, nanos / 1e6, getNodesPerSecond() / 1e3, getEffectiveBranchingFactor(),
+				getTotalCutoffs(), 100 * getTableHitRate());
+	}
+}
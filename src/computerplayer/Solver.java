@@ -0,0 +1,747 @@
+package computerplayer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import gamelogic.GameBoard;
+import gamelogic.Position;
+import gamelogic.Zobrist;
+
+/**
+ * Solves positions exactly: the solver proves how many more points the player
+ * to move makes than the opponent with perfect play until the end of the game
+ * and which column achieves it. The values count like those of the
+ * {@link EndgameTable}, which is used for the positions with few seeds.
+ * 
+ * The value is found by a proof search. Each step proves whether the value
+ * is at least a test value by an alpha beta search with a null window, and
+ * the test values halve the range the value can be in until it holds a
+ * single value. The columns of the root are proven by several threads that
+ * share the transposition table. The threads have large stacks, because a
+ * proof search has no depth limit.
+ * 
+ * A position that repeats on the current line is worth 0 like a cycle in the
+ * endgame table, no more seeds are eaten in it. A result that relies on such
+ * a repetition depends on the line it was found on and is only an estimate,
+ * the endgame table solves cycles layer by layer and can differ. These
+ * results are stored with a mark, otherwise every line through a cycle would
+ * be searched again and even positions with a few seeds could not be
+ * searched to the end. A result that uses a marked entry is marked as well,
+ * and a position is only solved if its proof does not rely on any marked
+ * result.
+ * 
+ * A long solve can write checkpoints: the transposition table and the proven
+ * range of the value. A solver opened from a checkpoint continues where it
+ * stopped, and a solver opened from a finished solve answers the positions
+ * of the proof almost without searching. Solving the start position with all
+ * 48 seeds is a run of many hours to days even with an endgame table.
+ * 
+ * @author Nic Dorner
+ *
+ */
+public class Solver implements AutoCloseable {
+
+	/** Returned as column if every column is worth the same */
+	public static final int ANY = -1;
+
+	// Identifies a checkpoint file, "URSV"
+	private static final int MAGIC = 0x55525356;
+	// Size of the header of a checkpoint: magic number, table size, the
+	// position, the proven range, the column, the nodes and the mark of a
+	// range that depends on repetitions
+	private static final int HEADER = 52;
+	// Bounds of all values, each eaten pair of seeds is worth one point
+	private static final int MAX_VALUE = GameBoard.TOTALSEEDS / 2;
+	// Window limit that lies outside of all values
+	private static final int INFINITY = MAX_VALUE + 1;
+	// Longest line of a search, deeper lines are treated like a repetition
+	private static final int MAX_PLY = 100000;
+	// Stack size of the search threads in bytes
+	private static final long STACK_SIZE = 1L << 30;
+	// Number of nodes between two checks of the stop condition
+	private static final int CHECK_INTERVAL = 1024;
+
+	private final TranspositionTable table;
+	private final int megabytes;
+	private EndgameTable endgameTable;
+	private int threads = Runtime.getRuntime().availableProcessors();
+	private File checkpoint;
+	private long checkpointInterval = TimeUnit.MINUTES.toMillis(10);
+	// Runs the provers, created with the first proof and kept until the
+	// solver is closed
+	private ExecutorService executor;
+
+	// Proven range of the position that was solved last
+	private Position position;
+	private int lower = -MAX_VALUE;
+	private int upper = MAX_VALUE;
+	private int move = ANY;
+	private long nodes;
+	private boolean pathDependent;
+
+	/**
+	 * Creates a solver with an empty transposition table
+	 * 
+	 * @param megabytes
+	 *            The size of the transposition table in megabytes
+	 */
+	public Solver(int megabytes) {
+		this.megabytes = megabytes;
+		this.table = new TranspositionTable(megabytes);
+	}
+
+	/**
+	 * Sets the table that holds the solved endgame positions. Without it the
+	 * positions with few seeds are searched as well.
+	 * 
+	 * @param endgameTable
+	 *            The table to use or null
+	 */
+	public void setEndgameTable(EndgameTable endgameTable) {
+		this.endgameTable = endgameTable;
+	}
+
+	/**
+	 * Sets the number of threads that prove the columns of the root
+	 * 
+	 * @param threads
+	 *            The number of threads, at least 1
+	 */
+	public synchronized void setThreads(int threads) {
+		this.threads = Math.max(1, threads);
+		this.close();
+	}
+
+	/**
+	 * Sets the file the solver writes its checkpoints to. A checkpoint is
+	 * written after each proven test value and in between whenever the
+	 * interval has passed.
+	 * 
+	 * @param checkpoint
+	 *            The checkpoint file or null to write no checkpoints
+	 * @param intervalMillis
+	 *            The time between two checkpoints during a proof in
+	 *            milliseconds
+	 */
+	public void setCheckpoint(File checkpoint, long intervalMillis) {
+		this.checkpoint = checkpoint;
+		this.checkpointInterval = intervalMillis;
+	}
+
+	/**
+	 * Solves a position
+	 * 
+	 * @param position
+	 *            The position to solve
+	 * @param stopped
+	 *            Polled by the search, the solve returns the range proven so
+	 *            far once it is true
+	 * @throws IOException
+	 *             Thrown if a checkpoint can not be written
+	 * @return The value and the best column or the proven range of the value
+	 *         if the solve was stopped
+	 */
+	public synchronized Solution solve(Position position, BooleanSupplier stopped) throws IOException {
+		if (!position.equals(this.position)) {
+			this.position = position;
+			this.lower = -MAX_VALUE;
+			this.upper = MAX_VALUE;
+			this.move = ANY;
+			this.nodes = 0;
+			this.pathDependent = false;
+		}
+		int known = position.isTerminal() ? 0 : EndgameTable.UNKNOWN;
+		if (known == EndgameTable.UNKNOWN && this.endgameTable != null) {
+			known = this.endgameTable.probe(position);
+		}
+		if (known != EndgameTable.UNKNOWN) {
+			this.lower = known;
+			this.upper = known;
+			this.move = this.bestEndgameMove(position);
+			this.pathDependent = false;
+			return this.solution();
+		}
+		if (position.legalMoves() == 0) {
+			// The only turn is a pass that eats nothing, the solver continues
+			// with the position after the pass
+			Solution pass = this.solve(position.pass(), stopped);
+			return new Solution(-pass.getUpper(), -pass.getLower(), ANY, pass.getNodes(), pass.isPathDependent());
+		}
+
+		if (this.executor == null) {
+			this.executor = Executors.newFixedThreadPool(this.threads, task -> {
+				Thread thread = new Thread(null, task, "Solver", STACK_SIZE);
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		while (this.lower < this.upper && !stopped.getAsBoolean()) {
+			// Round up, so every proof shrinks the range
+			int test = Math.floorDiv(this.lower + this.upper + 1, 2);
+			Integer value = this.prove(position, test, stopped);
+			if (value == null) {
+				break;
+			}
+			// The bounds of a fail soft search can be beyond the test value
+			if (value >= test) {
+				this.lower = Math.min(value, this.upper);
+			} else {
+				this.upper = Math.max(value, this.lower);
+			}
+			this.writeCheckpoint();
+		}
+		this.writeCheckpoint();
+		return this.solution();
+	}
+
+	/**
+	 * Stops the threads of the solver. A solver that is used again after it
+	 * was closed starts new threads.
+	 */
+	@Override
+	public synchronized void close() {
+		if (this.executor != null) {
+			this.executor.shutdownNow();
+			this.executor = null;
+		}
+	}
+
+	/**
+	 * Proves whether the value of the position is at least the test value.
+	 * Every column is proven by its own task, once a column reaches the test
+	 * value the other tasks are stopped. A proof that relies on repetitions
+	 * marks the range of the solver.
+	 * 
+	 * @param position
+	 *            The position to prove
+	 * @param test
+	 *            The test value
+	 * @param stopped
+	 *            Polled by the search
+	 * @throws IOException
+	 *             Thrown if a checkpoint can not be written
+	 * @return A lower bound of at least test or an upper bound below test,
+	 *         null if the proof was stopped
+	 */
+	private Integer prove(Position position, int test, BooleanSupplier stopped) throws IOException {
+		AtomicBoolean proven = new AtomicBoolean();
+		BooleanSupplier done = () -> proven.get() || stopped.getAsBoolean();
+		List<Integer> columns = new ArrayList<Integer>();
+		List<Prover> provers = new ArrayList<Prover>();
+		List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+		int moves = position.legalMoves();
+		int seeds = position.getTotalSeeds();
+		for (int column : this.order(position)) {
+			if ((moves >>> column & 1) == 0) {
+				continue;
+			}
+			columns.add(column);
+			Position child = position.play(column);
+			int gain = (seeds - child.getTotalSeeds()) / 2;
+			Prover prover = new Prover(position, done);
+			provers.add(prover);
+			results.add(this.executor.submit(() -> {
+				int value = gain - prover.search(child, 1, gain - test, gain - test + 1);
+				if (value >= test && !prover.aborted) {
+					proven.set(true);
+				}
+				return value;
+			}));
+		}
+
+		long lastCheckpoint = System.currentTimeMillis();
+		int maxValue = -INFINITY;
+		int maxTurn = ANY;
+		boolean maxPathDependent = false;
+		boolean pathDependent = false;
+		boolean complete = true;
+		for (int i = 0; i < columns.size(); i++) {
+			Future<Integer> result = results.get(i);
+			Prover prover = provers.get(i);
+			int value;
+			while (true) {
+				try {
+					value = result.get(Math.max(1, this.checkpointInterval), TimeUnit.MILLISECONDS);
+					break;
+				} catch (TimeoutException e) {
+					if (System.currentTimeMillis() - lastCheckpoint >= this.checkpointInterval) {
+						this.writeCheckpoint();
+						lastCheckpoint = System.currentTimeMillis();
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					proven.set(true);
+					return null;
+				} catch (ExecutionException e) {
+					throw new IllegalStateException(e.getCause());
+				}
+			}
+			this.nodes += prover.nodes;
+			// A column that was stopped early proved nothing
+			if (prover.aborted) {
+				complete = false;
+				continue;
+			}
+			pathDependent |= prover.pathDependent;
+			if (value > maxValue) {
+				maxValue = value;
+				maxTurn = columns.get(i);
+				maxPathDependent = prover.pathDependent;
+			}
+		}
+		if (maxValue >= test) {
+			this.move = maxTurn;
+			this.pathDependent |= maxPathDependent;
+			return maxValue;
+		}
+		// Every column has to fail for an upper bound
+		if (!complete) {
+			return null;
+		}
+		this.pathDependent |= pathDependent;
+		return maxValue;
+	}
+
+	/**
+	 * Orders the columns of a position, the column of the table first and
+	 * then the columns that eat the most seeds
+	 * 
+	 * @param position
+	 *            The position
+	 * @return All columns in the order they should be searched
+	 */
+	private int[] order(Position position) {
+		int[] columns = new int[GameBoard.WIDTH];
+		int[] keys = new int[GameBoard.WIDTH];
+		long entry = this.table.probe(Zobrist.canonical(position));
+		int tableMove = entry == 0 ? ANY : canonicalColumn(position, TranspositionTable.getMove(entry));
+		int seeds = position.getTotalSeeds();
+		int moves = position.legalMoves();
+		for (int i = 0; i < GameBoard.WIDTH; i++) {
+			columns[i] = i;
+			if ((moves >>> i & 1) != 0) {
+				keys[i] = i == tableMove ? Integer.MAX_VALUE : seeds - position.play(i).getTotalSeeds();
+			} else {
+				keys[i] = Integer.MIN_VALUE;
+			}
+		}
+		sort(columns, keys, GameBoard.WIDTH);
+		return columns;
+	}
+
+	/**
+	 * Picks the column that makes the most points until the end of the game
+	 * by looking up the position after each column in the endgame table
+	 * 
+	 * @param position
+	 *            A position in the endgame table
+	 * @return The best column or ANY if the game is over or the side to move
+	 *         has to pass
+	 */
+	private int bestEndgameMove(Position position) {
+		int maxValue = Integer.MIN_VALUE;
+		int maxTurn = ANY;
+		int moves = position.isTerminal() ? 0 : position.legalMoves();
+		int seeds = position.getTotalSeeds();
+		for (int i = 0; i < GameBoard.WIDTH; i++) {
+			if ((moves >>> i & 1) != 0) {
+				Position child = position.play(i);
+				int value = (seeds - child.getTotalSeeds()) / 2 - this.endgameTable.probe(child);
+				if (value > maxValue) {
+					maxValue = value;
+					maxTurn = i;
+				}
+			}
+		}
+		return maxTurn;
+	}
+
+	private Solution solution() {
+		return new Solution(this.lower, this.upper, this.move, this.nodes, this.pathDependent);
+	}
+
+	/**
+	 * Converts a column of the side to move into the column of the canonical
+	 * form and back
+	 * 
+	 * @param position
+	 *            The position the column belongs to
+	 * @param column
+	 *            The column or -1 for no column
+	 * @return The column of the same pit in the other form
+	 */
+	private static int canonicalColumn(Position position, int column) {
+		return column < 0 || position.getSideToMove() == 0 ? column : GameBoard.WIDTH - 1 - column;
+	}
+
+	/**
+	 * Sorts the columns by descending keys, stable for equal keys
+	 * 
+	 * @param columns
+	 *            The columns
+	 * @param keys
+	 *            The keys of the columns
+	 * @param length
+	 *            The number of columns
+	 */
+	private static void sort(int[] columns, int[] keys, int length) {
+		for (int i = 1; i < length; i++) {
+			int column = columns[i];
+			int key = keys[i];
+			int j = i - 1;
+			while (j >= 0 && keys[j] < key) {
+				columns[j + 1] = columns[j];
+				keys[j + 1] = keys[j];
+				j--;
+			}
+			columns[j + 1] = column;
+			keys[j + 1] = key;
+		}
+	}
+
+	/**
+	 * Writes the transposition table and the proven range to the checkpoint
+	 * file. The file is replaced only after it was written completely.
+	 * 
+	 * @throws IOException
+	 *             Thrown if the file can not be written
+	 */
+	private void writeCheckpoint() throws IOException {
+		if (this.checkpoint == null || this.position == null) {
+			return;
+		}
+		File temporary = new File(this.checkpoint.getPath() + ".tmp");
+		try (DataOutputStream output = new DataOutputStream(
+				new BufferedOutputStream(new FileOutputStream(temporary)))) {
+			output.writeInt(MAGIC);
+			output.writeInt(this.megabytes);
+			output.writeLong(this.position.getFirst());
+			output.writeLong(this.position.getSecond());
+			output.writeInt(this.position.getSideToMove());
+			output.writeInt(this.lower);
+			output.writeInt(this.upper);
+			output.writeInt(this.move);
+			output.writeLong(this.nodes);
+			output.writeBoolean(this.pathDependent);
+			output.writeByte(0);
+			output.writeShort(0);
+			output.flush();
+			this.table.write(Channels.newChannel(output));
+		}
+		Files.move(temporary.toPath(), this.checkpoint.toPath(), StandardCopyOption.REPLACE_EXISTING,
+				StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Opens a checkpoint written by a solver. Solving the same position again
+	 * continues with the proven range, other positions use the table.
+	 * 
+	 * @param file
+	 *            The checkpoint file
+	 * @throws IOException
+	 *             Thrown if the file can not be read or is not a checkpoint
+	 * @return The solver with the state of the checkpoint
+	 */
+	public static Solver open(File file) throws IOException {
+		try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (input.readInt() != MAGIC) {
+				throw new IOException(file + " is not a solver checkpoint");
+			}
+			int megabytes = input.readInt();
+			if (megabytes <= 0 || megabytes > file.length() / 1024 / 1024 * 2 + 1) {
+				throw new IOException(file + " is damaged");
+			}
+			Solver solver = new Solver(megabytes);
+			if (file.length() != HEADER + solver.table.getSize() * TranspositionTable.ENTRY_SIZE) {
+				throw new IOException(file + " is damaged");
+			}
+			long first = input.readLong();
+			long second = input.readLong();
+			solver.position = Position.of(first, second, input.readInt());
+			solver.lower = input.readInt();
+			solver.upper = input.readInt();
+			solver.move = input.readInt();
+			solver.nodes = input.readLong();
+			solver.pathDependent = input.readBoolean();
+			input.skipBytes(3);
+			solver.table.read(Channels.newChannel(input));
+			return solver;
+		}
+	}
+
+	/**
+	 * Searches a single column of the root on its own line
+	 * 
+	 * @author Nic Dorner
+	 * 
+	 */
+	private class Prover {
+		private final BooleanSupplier stopped;
+		// Hashes and seeds of the positions on the current line
+		private final long[] line = new long[MAX_PLY + 1];
+		private final int[] seeds = new int[MAX_PLY + 1];
+		private final int[][] columns = new int[MAX_PLY + 1][];
+		private final int[][] keys = new int[MAX_PLY + 1][];
+		private long nodes;
+		private boolean aborted;
+		// Set if a result of the current subtree relies on a repetition
+		private boolean pathDependent;
+
+		/**
+		 * Creates a prover whose line starts at the root
+		 * 
+		 * @param root
+		 *            The position of the root
+		 * @param stopped
+		 *            Stops the search once it is true
+		 */
+		Prover(Position root, BooleanSupplier stopped) {
+			this.stopped = stopped;
+			this.line[0] = Zobrist.hash(root);
+			this.seeds[0] = root.getTotalSeeds();
+		}
+
+		/**
+		 * Searches a position with an alpha beta search without depth limit
+		 * 
+		 * @param position
+		 *            The position
+		 * @param ply
+		 *            Distance to the root
+		 * @param alpha
+		 *            Aplha cut-off value
+		 * @param beta
+		 *            Beta cut-off value
+		 * @return The value for the side to move, a bound if it is outside of
+		 *         the window
+		 */
+		int search(Position position, int ply, int alpha, int beta) {
+			if (++this.nodes % CHECK_INTERVAL == 0 && this.stopped.getAsBoolean()) {
+				this.aborted = true;
+			}
+			if (this.aborted) {
+				return 0;
+			}
+			int seeds = position.getTotalSeeds();
+			if (seeds <= 2) {
+				return 0;
+			}
+			if (endgameTable != null) {
+				int value = endgameTable.probe(position);
+				if (value != EndgameTable.UNKNOWN) {
+					return value;
+				}
+			}
+			// Seeds are never added, so only positions with the same seeds
+			// can repeat
+			long hash = Zobrist.hash(position);
+			for (int i = ply - 1; i >= 0 && this.seeds[i] == seeds; i--) {
+				if (this.line[i] == hash) {
+					this.pathDependent = true;
+					return 0;
+				}
+			}
+			if (ply >= MAX_PLY) {
+				this.pathDependent = true;
+				return 0;
+			}
+			this.line[ply] = hash;
+			this.seeds[ply] = seeds;
+
+			int moves = position.legalMoves();
+			if (moves == 0) {
+				return -this.search(position.pass(), ply + 1, -beta, -alpha);
+			}
+
+			long canonical = Zobrist.canonical(position);
+			long entry = table.probe(canonical);
+			int tableMove = ANY;
+			if (entry != 0) {
+				int value = TranspositionTable.getValue(entry);
+				int bound = TranspositionTable.getBound(entry);
+				if (bound == TranspositionTable.EXACT || (bound == TranspositionTable.LOWER && value >= beta)
+						|| (bound == TranspositionTable.UPPER && value <= alpha)) {
+					this.pathDependent |= TranspositionTable.isPathDependent(entry);
+					return value;
+				}
+				tableMove = canonicalColumn(position, TranspositionTable.getMove(entry));
+			}
+
+			// Captures are searched first, they decide most proofs
+			if (this.columns[ply] == null) {
+				this.columns[ply] = new int[GameBoard.WIDTH];
+				this.keys[ply] = new int[GameBoard.WIDTH];
+			}
+			int[] columns = this.columns[ply];
+			int[] keys = this.keys[ply];
+			int count = 0;
+			for (int i = 0; i < GameBoard.WIDTH; i++) {
+				if ((moves >>> i & 1) != 0) {
+					columns[count] = i;
+					keys[count++] = i == tableMove ? Integer.MAX_VALUE
+							: seeds - position.play(i).getTotalSeeds();
+				}
+			}
+			sort(columns, keys, count);
+
+			boolean pathDependent = this.pathDependent;
+			this.pathDependent = false;
+			int maxValue = -INFINITY;
+			int maxTurn = ANY;
+			int window = alpha;
+			for (int k = 0; k < count; k++) {
+				Position child = position.play(columns[k]);
+				int gain = (seeds - child.getTotalSeeds()) / 2;
+				int value = gain - this.search(child, ply + 1, gain - beta, gain - window);
+				if (this.aborted) {
+					return 0;
+				}
+				if (value > maxValue) {
+					maxValue = value;
+					maxTurn = columns[k];
+					window = Math.max(window, value);
+					if (value >= beta) {
+						break;
+					}
+				}
+			}
+			int bound = TranspositionTable.EXACT;
+			if (maxValue <= alpha) {
+				bound = TranspositionTable.UPPER;
+			} else if (maxValue >= beta) {
+				bound = TranspositionTable.LOWER;
+			}
+			// Larger subtrees are kept when entries collide
+			table.store(canonical, seeds, bound, maxValue, canonicalColumn(position, maxTurn), this.pathDependent);
+			this.pathDependent |= pathDependent;
+			return maxValue;
+		}
+	}
+
+	/**
+	 * Result of a solve: the range the value is proven to be in and the
+	 * column that reaches the lower bound
+	 * 
+	 * @author Nic Dorner
+	 * 
+	 */
+	public static class Solution {
+		private final int lower;
+		private final int upper;
+		private final int move;
+		private final long nodes;
+		private final boolean pathDependent;
+
+		Solution(int lower, int upper, int move, long nodes, boolean pathDependent) {
+			this.lower = lower;
+			this.upper = upper;
+			this.move = move;
+			this.nodes = nodes;
+			this.pathDependent = pathDependent;
+		}
+
+		/**
+		 * Tells if the value is proven exactly
+		 * 
+		 * @return True if the lower and the upper bound are the same and do
+		 *         not rely on repetitions
+		 */
+		public boolean isSolved() {
+			return lower == upper && !pathDependent;
+		}
+
+		/**
+		 * Tells if the range relies on positions that repeated on the searched
+		 * lines and were scored 0. Such a range is only an estimate.
+		 * 
+		 * @return True if the range depends on repetitions
+		 */
+		public boolean isPathDependent() {
+			return pathDependent;
+		}
+
+		/**
+		 * Returns the value of a position whose range holds a single value
+		 * 
+		 * @return The points the side to move makes more than the opponent
+		 *         until the end of the game
+		 */
+		public int getValue() {
+			return lower;
+		}
+
+		public int getLower() {
+			return lower;
+		}
+
+		public int getUpper() {
+			return upper;
+		}
+
+		/**
+		 * Returns the best column
+		 * 
+		 * @return The column that reaches the proven lower bound, ANY if all
+		 *         columns are worth the same or the side to move has to pass
+		 */
+		public int getMove() {
+			return move;
+		}
+
+		public long getNodes() {
+			return nodes;
+		}
+
+		@Override
+		public String toString() {
+			String value = lower == upper ? "Value " + lower : "Value between " + lower + " and " + upper;
+			return value + (pathDependent ? " estimated with repetitions" : "")
+					+ (move == ANY ? "" : ", column " + (move + 1)) + ", " + nodes + " nodes";
+		}
+	}
+
+	/**
+	 * Solves the start position of the game
+	 * 
+	 * @param args
+	 *            The size of the transposition table in megabytes (default
+	 *            1024), the checkpoint file (default solution.bin) and the
+	 *            endgame table (default endgame.tb). An existing checkpoint is
+	 *            continued.
+	 */
+	public static void main(String[] args) {
+		int megabytes = args.length > 0 ? Integer.parseInt(args[0]) : 1024;
+		File file = new File(args.length > 1 ? args[1] : "solution.bin");
+		File endgame = new File(args.length > 2 ? args[2] : "endgame.tb");
+		long start = System.currentTimeMillis();
+		try (Solver solver = file.exists() ? open(file) : new Solver(megabytes)) {
+			if (endgame.exists()) {
+				solver.setEndgameTable(EndgameTable.open(endgame));
+			}
+			solver.setCheckpoint(file, TimeUnit.MINUTES.toMillis(10));
+			Solution solution = solver.solve(Position.INITIAL, () -> false);
+			System.out.println(solution + " in " + (System.currentTimeMillis() - start) + " ms, written to " + file);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+}
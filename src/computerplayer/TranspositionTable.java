@@ -0,0 +1,321 @@
+package computerplayer;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Fixed size hash table that stores the results of searched positions. The
+ * table has a power of two number of entries, each entry uses two longs: the
+ * Zobrist hash of the position and the packed result. An entry is replaced
+ * whenever another position maps to it or the same position was searched at
+ * least as deep.
+ * 
+ * The entries are kept outside of the heap in direct buffers of at most 1 GB
+ * each, so even a table of several gigabytes is never copied or scanned by
+ * the garbage collector and does not pause the user interface.
+ * 
+ * Values are stored from the perspective of the player to move, so the table
+ * can be shared by both players and kept between turns.
+ * 
+ * The table can be shared by several search threads without locking. The key
+ * is stored xor the result, so an entry that was torn by two threads writing
+ * at the same time no longer matches the hash and is treated as a miss. The
+ * probe and hit counters are not synchronized and only approximate while
+ * several threads use the table.
+ * 
+ * @author Nic Dorner
+ * 
+ */
+public class TranspositionTable {
+
+	/** The stored value is the exact value of the position */
+	public static final int EXACT = 0;
+	/** The value of the position is at least the stored value */
+	public static final int LOWER = 1;
+	/** The value of the position is at most the stored value */
+	public static final int UPPER = 2;
+
+	/** Bytes used by a single entry */
+	public static final int ENTRY_SIZE = 16;
+
+	// Layout of the packed result
+	private static final int VALUE_BITS = 16;
+	private static final int DEPTH_SHIFT = 16;
+	private static final int BOUND_SHIFT = 24;
+	private static final int MOVE_SHIFT = 26;
+	private static final long PATH_DEPENDENT = 1L << 30;
+	private static final long USED = 1L << 32;
+
+	// Entries per buffer, a buffer can not hold more than 2^31 - 1 bytes
+	private static final int CHUNK_BITS = 26;
+	private static final long CHUNK_MASK = (1L << CHUNK_BITS) - 1;
+	private static final long[] ZEROS = new long[8192];
+
+	private ByteBuffer[] buffers;
+	private LongBuffer[] chunks;
+	private long mask;
+	private long probes;
+	private long hits;
+
+	/**
+	 * Creates a new empty table
+	 * 
+	 * @param megabytes
+	 *            The maximum size of the table in megabytes, the number of
+	 *            entries is rounded down to a power of two
+	 */
+	public TranspositionTable(int megabytes) {
+		long entries = Long.highestOneBit(Math.max(1, (long) megabytes * 1024 * 1024 / ENTRY_SIZE));
+		int chunkEntries = (int) Math.min(entries, 1L << CHUNK_BITS);
+		this.buffers = new ByteBuffer[(int) (entries / chunkEntries)];
+		this.chunks = new LongBuffer[this.buffers.length];
+		for (int i = 0; i < this.chunks.length; i++) {
+			// Direct buffers are zeroed, so all entries start unused
+			this.buffers[i] = ByteBuffer.allocateDirect(chunkEntries * ENTRY_SIZE).order(ByteOrder.nativeOrder());
+			this.chunks[i] = this.buffers[i].asLongBuffer();
+		}
+		this.mask = entries - 1;
+	}
+
+	/**
+	 * Looks up the entry of a position
+	 * 
+	 * @param hash
+	 *            Zobrist hash of the position
+	 * @return The packed result or 0 if the position is not in the table
+	 */
+	public long probe(long hash) {
+		this.probes++;
+		long slot = this.slot(hash);
+		LongBuffer chunk = this.chunks[(int) (slot >>> CHUNK_BITS)];
+		int index = (int) (slot & CHUNK_MASK) << 1;
+		long entry = chunk.get(index + 1);
+		if ((chunk.get(index) ^ entry) == hash && entry != 0) {
+			this.hits++;
+			return entry;
+		}
+		return 0;
+	}
+
+	/**
+	 * Stores the result of a search
+	 * 
+	 * @param hash
+	 *            Zobrist hash of the position
+	 * @param depth
+	 *            The depth the position was searched with
+	 * @param bound
+	 *            One of EXACT, LOWER or UPPER
+	 * @param value
+	 *            The value from the perspective of the player to move
+	 * @param move
+	 *            The best column or -1 if there is none
+	 */
+	public void store(long hash, int depth, int bound, int value, int move) {
+		this.store(hash, depth, bound, value, move, false);
+	}
+
+	/**
+	 * Stores the result of a search that may depend on the line the position
+	 * was reached by
+	 * 
+	 * @param hash
+	 *            Zobrist hash of the position
+	 * @param depth
+	 *            The depth the position was searched with
+	 * @param bound
+	 *            One of EXACT, LOWER or UPPER
+	 * @param value
+	 *            The value from the perspective of the player to move
+	 * @param move
+	 *            The best column or -1 if there is none
+	 * @param pathDependent
+	 *            True if the result relies on positions that repeated on the
+	 *            line of the search
+	 */
+	public void store(long hash, int depth, int bound, int value, int move, boolean pathDependent) {
+		// Values that do not fit are search window limits, not results
+		if (value != (short) value) {
+			return;
+		}
+		long slot = this.slot(hash);
+		LongBuffer chunk = this.chunks[(int) (slot >>> CHUNK_BITS)];
+		int index = (int) (slot & CHUNK_MASK) << 1;
+		long old = chunk.get(index + 1);
+		if ((chunk.get(index) ^ old) == hash && getDepth(old) > depth) {
+			return;
+		}
+		long entry = USED | (pathDependent ? PATH_DEPENDENT : 0) | (long) (move + 1) << MOVE_SHIFT
+				| (long) bound << BOUND_SHIFT | (long) Math.min(depth, 255) << DEPTH_SHIFT
+				| (value & ((1 << VALUE_BITS) - 1));
+		chunk.put(index, hash ^ entry);
+		chunk.put(index + 1, entry);
+	}
+
+	/**
+	 * Removes all entries and resets the statistics
+	 */
+	public void clear() {
+		for (LongBuffer chunk : this.chunks) {
+			chunk.clear();
+			while (chunk.hasRemaining()) {
+				chunk.put(ZEROS, 0, Math.min(ZEROS.length, chunk.remaining()));
+			}
+		}
+		this.probes = 0;
+		this.hits = 0;
+	}
+
+	/**
+	 * Writes all entries, so a long search can be continued later. Other
+	 * threads may keep using the table, an entry they change while it is
+	 * written is read back as a miss. The entries are written in the byte
+	 * order of the machine.
+	 * 
+	 * @param channel
+	 *            The channel to write to
+	 * @throws IOException
+	 *             Thrown if the entries can not be written
+	 */
+	public void write(WritableByteChannel channel) throws IOException {
+		for (ByteBuffer buffer : this.buffers) {
+			ByteBuffer data = buffer.duplicate();
+			data.clear();
+			while (data.hasRemaining()) {
+				channel.write(data);
+			}
+		}
+	}
+
+	/**
+	 * Replaces all entries by entries written with {@link #write} from a
+	 * table of the same size
+	 * 
+	 * @param channel
+	 *            The channel to read from
+	 * @throws IOException
+	 *             Thrown if the entries can not be read
+	 */
+	public void read(ReadableByteChannel channel) throws IOException {
+		for (ByteBuffer buffer : this.buffers) {
+			ByteBuffer data = buffer.duplicate();
+			data.clear();
+			while (data.hasRemaining()) {
+				if (channel.read(data) < 0) {
+					throw new EOFException("The table ends after " + data.position() + " bytes of a chunk");
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of entries
+	 * 
+	 * @return The number of positions the table can hold
+	 */
+	public long getSize() {
+		return this.mask + 1;
+	}
+
+	/**
+	 * Returns the number of lookups since the table was created or cleared
+	 * 
+	 * @return Number of calls to probe
+	 */
+	public long getProbes() {
+		return this.probes;
+	}
+
+	/**
+	 * Returns the number of successful lookups since the table was created or
+	 * cleared
+	 * 
+	 * @return Number of probes that found the position
+	 */
+	public long getHits() {
+		return this.hits;
+	}
+
+	/**
+	 * Returns the share of lookups that found the position
+	 * 
+	 * @return Hits divided by probes, 0 if nothing was probed yet
+	 */
+	public double getHitRate() {
+		return this.probes == 0 ? 0 : (double) this.hits / this.probes;
+	}
+
+	/**
+	 * Returns the depth of a packed result
+	 * 
+	 * @param entry
+	 *            The result returned by probe
+	 * @return The depth the position was searched with
+	 */
+	public static int getDepth(long entry) {
+		return (int) (entry >>> DEPTH_SHIFT) & 0xFF;
+	}
+
+	/**
+	 * Returns the bound of a packed result
+	 * 
+	 * @param entry
+	 *            The result returned by probe
+	 * @return One of EXACT, LOWER or UPPER
+	 */
+	public static int getBound(long entry) {
+		return (int) (entry >>> BOUND_SHIFT) & 0x3;
+	}
+
+	/**
+	 * Returns the value of a packed result
+	 * 
+	 * @param entry
+	 *            The result returned by probe
+	 * @return The value from the perspective of the player to move
+	 */
+	public static int getValue(long entry) {
+		return (short) entry;
+	}
+
+	/**
+	 * Returns the best move of a packed result
+	 * 
+	 * @param entry
+	 *            The result returned by probe
+	 * @return The best column or -1 if there is none
+	 */
+	public static int getMove(long entry) {
+		return (int) (entry >>> MOVE_SHIFT & 0xF) - 1;
+	}
+
+	/**
+	 * Tells if a packed result depends on the line of the search
+	 * 
+	 * @param entry
+	 *            The result returned by probe
+	 * @return True if the result relies on positions that repeated on the
+	 *         line it was found on
+	 */
+	public static boolean isPathDependent(long entry) {
+		return (entry & PATH_DEPENDENT) != 0;
+	}
+
+	/**
+	 * Maps a hash to its entry
+	 * 
+	 * @param hash
+	 *            Zobrist hash of the position
+	 * @return Number of the entry in the whole table
+	 */
+	private long slot(long hash) {
+		// Folding the halves would map a hash and its rotation by 32 bits, the
+		// mirror image of the pits, to the same entry
+		return hash & this.mask;
+	}
+}
@@ -1,5 +1,7 @@
 package computerplayer;
 
+import java.util.function.BooleanSupplier;
+
 import gamelogic.Game;
 
 /**
@@ -17,4 +19,30 @@ public interface TurnCalculator {
 	 * @return The column on the gamefield that was calculated by this method
 	 */
 	public int calculateTurn(Game game);
+
+	/**
+	 * Calculates the value of the turn and stops early if the turn is no
+	 * longer needed. Calculators that are fast anyway do not poll the
+	 * condition.
+	 * 
+	 * @param game
+	 *            Current state of the game
+	 * @param cancelled
+	 *            Tells the calculation to stop, it is polled regularly; once
+	 *            it is true the returned column is meaningless
+	 * @return The column on the gamefield that was calculated by this method
+	 */
+	public default int calculateTurn(Game game, BooleanSupplier cancelled) {
+		return this.calculateTurn(game);
+	}
+
+	/**
+	 * Returns what the search of the last turn did
+	 * 
+	 * @return The statistics of the last turn or null if the turn is
+	 *         calculated without a search
+	 */
+	public default SearchStatistics getStatistics() {
+		return null;
+	}
 }
@@ -2,10 +2,11 @@ package gamelogic;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.EmptyStackException;
 import java.util.Observable;
-import java.util.Stack;
 
 import gamelogic.GameBoard.InvalidPitException;
+import monitoring.Events;
 
 /**
  * 
@@ -18,7 +19,10 @@ public class Game extends Observable {
 	private List<Player> players;
 	private GameBoard gameBoard;
 	private int turn;
-	private Stack<Integer> history;
+	// Undo log with one entry per turn: the turn, if the turn was passed and
+	// the score of the move
+	private int[] history;
+	private int historySize;
 	private boolean end;
 
 	/**
@@ -41,10 +45,25 @@ public class Game extends Observable {
 		this.gameBoard = gameBoard;
 
 		this.turn = 0;
-		this.history = new Stack<Integer>();
+		this.history = new int[64];
+		this.historySize = 0;
 		this.end = this.checkEnd();
 	}
 
+	/**
+	 * Copy constructor that creates an independent game in the same state.
+	 * The gameboard and the players are copied as well, the saved turns are
+	 * not, so the copy can not undo turns played before it was created.
+	 * 
+	 * @param game
+	 *            The game to copy
+	 */
+	public Game(Game game) {
+		this(new GameBoard(game.gameBoard.getPosition(game.turn)), new Player(game.players.get(0)),
+				new Player(game.players.get(1)));
+		this.turn = game.turn;
+	}
+
 	/**
 	 * Returns the current turn
 	 * 
@@ -72,14 +91,39 @@ public class Game extends Observable {
 		return gameBoard;
 	}
 
+	/**
+	 * Returns the packed state of the gameboard with the current player to
+	 * move
+	 *
+	 * @return The current position
+	 */
+	public Position getPosition() {
+		return gameBoard.getPosition(this.turn);
+	}
+
+	/**
+	 * Returns the Zobrist hash of the current state of the game. The hash
+	 * covers the seeds in all pits, the player to move and the score
+	 * difference.
+	 * 
+	 * @return Hash that identifies the state of the game
+	 */
+	public long getHash() {
+		int difference = this.players.get(0).getScore() - this.players.get(1).getScore();
+		return gameBoard.getHash() ^ Zobrist.side(this.turn) ^ Zobrist.score(difference);
+	}
+
 	/**
 	 * Toggles the turn (0 to 1 and 1 to 0)
 	 */
 	private void toggleTurn() {
 		this.turn = 1 - this.turn;
 
-		this.setChanged();
-		this.notifyObservers(this);
+		// Notifying without observers still copies the observer list
+		if (this.countObservers() > 0) {
+			this.setChanged();
+			this.notifyObservers(this);
+		}
 	}
 
 	/**
@@ -90,7 +134,8 @@ public class Game extends Observable {
 	 * @return True if the Game has ended
 	 */
 	private boolean checkEnd() {
-		if (gameBoard.getTotalSeeds() == 2) {
+		// Eating two pits with the last seeds can leave an empty board
+		if (gameBoard.getTotalSeeds() <= 2) {
 			return this.end = true;
 		}
 		return this.end = false;
@@ -153,7 +198,9 @@ public class Game extends Observable {
 	}
 
 	/**
-	 * Checks if the current player has an option to play
+	 * Checks if the current player has an option to play. If not the turn is
+	 * passed to the other player, this pass is not saved and can not be
+	 * undone. Use {@link #legalMoves()} and {@link #passTurn()} to look ahead.
 	 * 
 	 * @return True if the current player has an option
 	 */
@@ -166,6 +213,36 @@ public class Game extends Observable {
 		}
 	}
 
+	/**
+	 * Returns the columns the current player can play without changing the
+	 * game
+	 * 
+	 * @return A mask where bit i is set if column i can be played, 0 if the
+	 *         game has ended or the current player has to pass
+	 */
+	public int legalMoves() {
+		if (this.end) {
+			return 0;
+		}
+		return this.gameBoard.legalMoves(this.turn);
+	}
+
+	/**
+	 * Passes the turn to the other player if the current player has no seeds.
+	 * The pass is saved like a played turn and can be undone by undoTurn.
+	 * 
+	 * @return True if the turn was passed, false if the current player has an
+	 *         option to play or the game has ended
+	 */
+	public boolean passTurn() {
+		if (this.end || !this.gameBoard.checkEmptyRow(this.turn)) {
+			return false;
+		}
+		this.saveTurn(0, true);
+		this.toggleTurn();
+		return true;
+	}
+
 	/**
 	 * The selected column is played: sets the score of the current player,
 	 * checks for ending and toggles turn. In addition this method saves the
@@ -182,41 +259,64 @@ public class Game extends Observable {
 	public int playTurn(int column) {
 		// return -1 if the column contains no seeds or the game is over already
 		if (!end && this.gameBoard.getPitSeeds(this.turn, column) > 0) {
-			// Save the board and the player to later undo it properly
-			this.saveTurn();
+			// Only turns of the observed game are recorded, the games of the
+			// searches have no observers
+			Object event = Events.ENABLED && this.countObservers() > 0 ? Events.beginTurn() : null;
+			int row = this.turn;
+			// Save the board to later undo it properly
+			this.gameBoard.saveBoard();
 			// Play the turn itself
 			int score = this.gameBoard.playPit(this.turn, column);
 			// The score equals the number of seeds eaten divided by two
 			score /= 2;
+			this.saveTurn(score, false);
 			this.players.get(this.turn).increaseScore(score);
 			this.checkEnd();
 			this.toggleTurn();
+			if (event != null) {
+				Events.endTurn(event, row, column, score);
+			}
 			return score;
 		}
 		return -1;
 	}
 
 	/**
-	 * Saves the current state of the game
+	 * Saves the turn and the score of the move that is played. The log grows
+	 * by doubling, so saving does not allocate once a game reached its depth.
+	 * 
+	 * @param score
+	 *            The score the current player gets for the move
+	 * @param pass
+	 *            True if the current player passes
 	 */
-	private void saveTurn() {
-		this.gameBoard.saveBoard();
-		this.players.get(0).saveScore();
-		this.players.get(1).saveScore();
-
-		this.history.push(this.turn);
+	private void saveTurn(int score, boolean pass) {
+		if (this.historySize == this.history.length) {
+			int[] temp = new int[this.history.length * 2];
+			System.arraycopy(this.history, 0, temp, 0, this.historySize);
+			this.history = temp;
+		}
+		this.history[this.historySize++] = (score << 2) | (pass ? 2 : 0) | this.turn;
 	}
 
 	/**
-	 * Undoes the last turn executed by playColumn, if playColumn returned -1
-	 * then this turn was not saved and should not be undone
+	 * Undoes the last turn executed by playColumn or passTurn, if playColumn
+	 * returned -1 or passTurn returned false then this turn was not saved and
+	 * should not be undone
 	 */
 	public void undoTurn() {
+		if (this.historySize == 0) {
+			throw new EmptyStackException();
+		}
+		int entry = this.history[--this.historySize];
+		this.turn = entry & 1;
+		if ((entry & 2) != 0) {
+			// A pass did not change the board or the score
+			return;
+		}
 		this.gameBoard.undoBoard();
-		this.players.get(0).undoScore();
-		this.players.get(1).undoScore();
+		this.players.get(this.turn).decreaseScore(entry >>> 2);
 		this.checkEnd();
-		this.turn = this.history.pop();
 	}
 
 	/**
@@ -227,7 +327,7 @@ public class Game extends Observable {
 		this.players.get(0).resetScore();
 		this.players.get(1).resetScore();
 		this.turn = 0;
-		this.history = new Stack<Integer>();
+		this.historySize = 0;
 		this.end = false;
 
 		this.setChanged();
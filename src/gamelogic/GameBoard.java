@@ -20,7 +20,11 @@ public class GameBoard extends Observable {
 	public static final int INITIALSEEDS = 4;
 	public static final int TOTALSEEDS = HEIGHT * WIDTH * INITIALSEEDS;
 
-	private int[][] board;
+	// The pits packed in the layout of the Position class
+	private long first;
+	private long second;
+	// Zobrist hash of the pits, updated with every change
+	private long hash;
 	private GameBoardStack history;
 
 	/**
@@ -28,7 +32,6 @@ public class GameBoard extends Observable {
 	 * be planted in each pit
 	 */
 	public GameBoard() {
-		this.board = new int[GameBoard.HEIGHT][GameBoard.WIDTH];
 		this.history = new GameBoardStack();
 		this.resetBoard();
 	}
@@ -40,22 +43,57 @@ public class GameBoard extends Observable {
 	 *            The board that will be used to create the gameboard
 	 */
 	public GameBoard(int[][] board) {
-		this.board = board;
+		this(new Position(board, 0));
+	}
+
+	/**
+	 * Constructor that creates the game board from the pits of a position
+	 * 
+	 * @param position
+	 *            The position that will be used to create the gameboard
+	 */
+	public GameBoard(Position position) {
+		this.first = position.getFirst();
+		this.second = position.getSecond();
+		this.hash = Zobrist.pits(this.first, this.second);
 		this.history = new GameBoardStack();
 	}
 
+	/**
+	 * Returns the current pits as an immutable position
+	 * 
+	 * @param sideToMove
+	 *            The row of the player who has to move
+	 * @return The packed position
+	 */
+	public Position getPosition(int sideToMove) {
+		return Position.of(this.first, this.second, sideToMove);
+	}
+
+	/**
+	 * Returns the Zobrist hash of the pits
+	 * 
+	 * @return Hash that identifies the seeds in all pits
+	 */
+	public long getHash() {
+		return this.hash;
+	}
+
 	/**
 	 * Save the current state of the game board
 	 */
 	public void saveBoard() {
-		this.history.push(this.board);
+		this.history.push(this.first, this.second, this.hash);
 	}
 
 	/**
 	 * Retrieve the last saved state of the game baord
 	 */
 	public void undoBoard() {
-		this.board = this.history.pop();
+		this.history.pop();
+		this.first = this.history.getFirst();
+		this.second = this.history.getSecond();
+		this.hash = this.history.getHash();
 	}
 
 	/**
@@ -72,57 +110,76 @@ public class GameBoard extends Observable {
 	 */
 	public int playPit(int row, int column) {
 		int seeds = getPitSeeds(row, column);
-		int score = 0;
-
-		// Keep track of the changed pits
-		List<Point> changedPits = new ArrayList<Point>();
-
-		// Save the parameters to use it later to indicate witch pit was played
-		int x = row, y = column;
-
-		// Set the played pit to zero since all seeds are removed
-		this.board[x][y] = 0;
-		changedPits.add(new Point(x, y));
-
-		// define the direction
-		boolean add = false;
-		if (x == 0) {
-			add = true;
+		int before = this.getTotalSeeds();
+
+		// Remove all seeds from the played pit and sow them lap by lap, the
+		// pits form a ring in sowing order
+		int origin = Position.ring(row, column);
+		long first = this.first;
+		long second = this.second;
+		if (row == 0) {
+			this.first &= ~(Position.PIT << (Position.BITS * origin));
+		} else {
+			this.second &= ~(Position.PIT << (Position.BITS * (origin - GameBoard.WIDTH)));
 		}
-		for (int i = 0; i < seeds; i++) {
-			// iterate over column and row
-			// make sure boundaries are not exeeded
-			if (add) {
-				y++;
-			} else {
-				y--;
-			}
-			if (y > GameBoard.WIDTH - 1) {
-				y = GameBoard.WIDTH - 1;
-				x++;
-				add = false;
-			}
-			if (y < 0) {
-				y = 0;
-				x--;
-				add = true;
-			}
-
-			// Eat the seeds if there is only one in the pit already and the row
-			// is different
-			if (this.board[x][y] == 1 && x != row) {
-				this.board[x][y] = 0;
-				score += 2;
-			} else {
-				this.board[x][y]++;
-			}
-			changedPits.add(new Point(x, y));
+		int laps = seeds / Position.PITS;
+		// Seeds are eaten if a pit of the other row held a single seed
+		this.first = Position.sowRow(this.first, laps, Position.partial(origin, seeds, 0), row != 0);
+		this.second = Position.sowRow(this.second, laps, Position.partial(origin, seeds, 1), row != 1);
+		// Only the keys of the changed pits are swapped in the hash
+		this.hash = Zobrist.update(this.hash, first, this.first, 0);
+		this.hash = Zobrist.update(this.hash, second, this.second, GameBoard.WIDTH);
+
+		// Only build the changed pits if someone is interested, the computer
+		// players sow without observers and should not allocate anything
+		if (this.countObservers() > 0) {
+			this.setChanged();
+			this.notifyObservers(new GameBoardDTO(this, this.changedPits(origin, seeds)));
 		}
 
-		this.setChanged();
-		this.notifyObservers(new GameBoardDTO(this, changedPits));
+		return before - this.getTotalSeeds();
+	}
 
-		return score;
+	/**
+	 * Calculates the number of seeds a move would eat without playing it
+	 * 
+	 * @param row
+	 *            Number of the row
+	 * @param column
+	 *            Number of the column
+	 * @throws InvalidPitException
+	 *             if row and column were invalid
+	 * @return The number of seeds playPit would return for this pit
+	 */
+	public int getCaptures(int row, int column) {
+		int seeds = getPitSeeds(row, column);
+		int origin = Position.ring(row, column);
+		int laps = seeds / Position.PITS;
+		// Only the row of the other player can lose seeds
+		long other = Position.partial(origin, seeds, 1 - row);
+		long before = row == 0 ? this.second : this.first;
+		long after = Position.sowRow(before, laps, other, true);
+		return Position.sum(before) + laps * GameBoard.WIDTH + Long.bitCount(other) - Position.sum(after);
+	}
+
+	/**
+	 * Lists the pits that were changed by sowing, starting with the played pit
+	 * followed by the pit of each seed in the order they were sown
+	 * 
+	 * @param origin
+	 *            Index of the played pit on the ring
+	 * @param seeds
+	 *            Number of seeds that were sown
+	 * @return The changed pits as row and column
+	 */
+	private List<Point> changedPits(int origin, int seeds) {
+		List<Point> changedPits = new ArrayList<Point>(seeds + 1);
+		for (int i = 0; i <= seeds; i++) {
+			int pit = (origin + i) % Position.PITS;
+			int x = pit / GameBoard.WIDTH;
+			changedPits.add(new Point(x, x == 0 ? pit : Position.PITS - 1 - pit));
+		}
+		return changedPits;
 	}
 
 	/**
@@ -138,13 +195,10 @@ public class GameBoard extends Observable {
 	 * @return The number of seeds in the pit
 	 */
 	public int getPitSeeds(int row, int column) {
-		int seeds = -1;
-		try {
-			seeds = this.board[row][column];
-		} catch (ArrayIndexOutOfBoundsException e) {
+		if (row < 0 || row >= GameBoard.HEIGHT || column < 0 || column >= GameBoard.WIDTH) {
 			throw new InvalidPitException("The pit at [" + row + "][" + column + "] does not exist.");
 		}
-		return seeds;
+		return (int) ((row == 0 ? this.first : this.second) >>> (Position.BITS * Position.lane(row, column)) & Position.PIT);
 	}
 
 	/**
@@ -153,13 +207,23 @@ public class GameBoard extends Observable {
 	 * @return Total amount of seeds on the board
 	 */
 	public int getTotalSeeds() {
-		int total = 0;
-		for (int[] row : this.board) {
-			for (int pit : row) {
-				total += pit;
-			}
+		return Position.sum(this.first) + Position.sum(this.second);
+	}
+
+	/**
+	 * Returns the columns of a row that contain seeds
+	 * 
+	 * @param row
+	 *            Number of the row
+	 * @throws InvalidPitException
+	 *             if the row was invalid
+	 * @return A mask where bit i is set if column i contains seeds
+	 */
+	public int legalMoves(int row) {
+		if (row < 0 || row >= GameBoard.HEIGHT) {
+			throw new InvalidPitException("The row " + row + " does not exist.");
 		}
-		return total;
+		return Position.legalMoves(row == 0 ? this.first : this.second, row);
 	}
 
 	/**
@@ -172,14 +236,10 @@ public class GameBoard extends Observable {
 	 * @return True if all pits are empty in this row
 	 */
 	public boolean checkEmptyRow(int row) {
-		boolean empty = true;
-		for (int i = 0; i < GameBoard.WIDTH; i++) {
-			if (this.getPitSeeds(row, i) != 0) {
-				empty = false;
-				break;
-			}
+		if (row < 0 || row >= GameBoard.HEIGHT) {
+			throw new InvalidPitException("The row " + row + " does not exist.");
 		}
-		return empty;
+		return (row == 0 ? this.first : this.second) == 0;
 	}
 
 	/**
@@ -192,10 +252,10 @@ public class GameBoard extends Observable {
 			line = line + "-";
 		}
 		output.append(line + "\n");
-		for (int[] row : this.board) {
-			for (int pit : row) {
+		for (int i = 0; i < GameBoard.HEIGHT; i++) {
+			for (int j = 0; j < GameBoard.WIDTH; j++) {
 				output.append("|");
-				output.append(pit + "");
+				output.append(this.getPitSeeds(i, j) + "");
 			}
 			output.append("|");
 			output.append("\n");
@@ -208,21 +268,25 @@ public class GameBoard extends Observable {
 	 * Reset all pits to the inital value
 	 */
 	public void resetBoard() {
-		// Keep track of the changed pits
-		List<Point> changedPits = new ArrayList<Point>();
-
 		// Set every pit to its initial value
-		for (int i = 0; i < this.board.length; i++) {
-			for (int j = 0; j < this.board[i].length; j++) {
-				this.board[i][j] = GameBoard.INITIALSEEDS;
-				changedPits.add(new Point(i, j));
-			}
-		}
+		this.first = Position.INITIAL.getFirst();
+		this.second = Position.INITIAL.getSecond();
+		this.hash = Zobrist.pits(this.first, this.second);
 
 		this.history.reset();
 
-		this.setChanged();
-		this.notifyObservers(new GameBoardDTO(this, changedPits));
+		if (this.countObservers() > 0) {
+			// Keep track of the changed pits
+			List<Point> changedPits = new ArrayList<Point>();
+			for (int i = 0; i < GameBoard.HEIGHT; i++) {
+				for (int j = 0; j < GameBoard.WIDTH; j++) {
+					changedPits.add(new Point(i, j));
+				}
+			}
+
+			this.setChanged();
+			this.notifyObservers(new GameBoardDTO(this, changedPits));
+		}
 	}
 
 	/**
@@ -250,64 +314,75 @@ public class GameBoard extends Observable {
 	 */
 	private class GameBoardStack {
 		private int pointer;
-		private int stack[][][];
+		private long stack[];
 
 		/**
 		 * Constructor that creates a new empty stack
 		 */
 		public GameBoardStack() {
-			this.stack = new int[10][GameBoard.HEIGHT][GameBoard.WIDTH];
+			this.stack = new long[64 * 3];
 			this.pointer = 0;
 		}
 
 		/**
 		 * Push a new value on the stack
 		 * 
-		 * @param board
-		 *            The value of the board to push on the stack
+		 * @param first
+		 *            The packed first row to push on the stack
+		 * @param second
+		 *            The packed second row to push on the stack
+		 * @param hash
+		 *            The hash of the pits to push on the stack
 		 */
-		public void push(int board[][]) {
-			this.copy(this.stack[this.pointer], board);
-			if (this.pointer + 1 == this.stack.length) {
-				int temp[][][] = new int[this.pointer + 10][GameBoard.HEIGHT][GameBoard.WIDTH];
-				for (int i = 0; i < this.stack.length; i++) {
-					temp[i] = this.stack[i];
-				}
+		public void push(long first, long second, long hash) {
+			if (this.pointer + 3 > this.stack.length) {
+				// Double the size so pushing stays cheap in deep searches
+				long temp[] = new long[this.stack.length * 2];
+				System.arraycopy(this.stack, 0, temp, 0, this.stack.length);
 				this.stack = temp;
 			}
-			this.pointer++;
+			this.stack[this.pointer++] = first;
+			this.stack[this.pointer++] = second;
+			this.stack[this.pointer++] = hash;
 		}
 
 		/**
-		 * Pop the current value from the stack
-		 * 
-		 * @return The value of the gameboard that was poped from the stack
+		 * Pop the current value from the stack, the popped value can be read
+		 * with getFirst, getSecond and getHash
 		 */
-		public int[][] pop() {
+		public void pop() {
 			if (this.pointer > 0) {
-				this.pointer--;
-				int[][] temp = new int[GameBoard.HEIGHT][GameBoard.WIDTH];
-				this.copy(temp, this.stack[pointer]);
-				return temp;
+				this.pointer -= 3;
 			} else {
 				throw new EmptyStackException();
 			}
 		}
 
 		/**
-		 * Helper method to copy a two dimensional array
+		 * Returns the first row of the value that was popped last
 		 * 
-		 * @param destination
-		 *            array to copy to
-		 * @param source
-		 *            array to copy from
+		 * @return The packed first row
 		 */
-		private void copy(int[][] destination, int[][] source) {
-			for (int i = 0; i < source.length; i++) {
-				for (int j = 0; j < source[i].length; j++) {
-					destination[i][j] = source[i][j];
-				}
-			}
+		public long getFirst() {
+			return this.stack[this.pointer];
+		}
+
+		/**
+		 * Returns the second row of the value that was popped last
+		 * 
+		 * @return The packed second row
+		 */
+		public long getSecond() {
+			return this.stack[this.pointer + 1];
+		}
+
+		/**
+		 * Returns the hash of the value that was popped last
+		 * 
+		 * @return The hash of the pits
+		 */
+		public long getHash() {
+			return this.stack[this.pointer + 2];
 		}
 
 		/**
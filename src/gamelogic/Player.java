@@ -1,7 +1,6 @@
 package gamelogic;
 
 import java.util.Observable;
-import java.util.Stack;
 
 import userinterface.PlayerMode;
 
@@ -15,7 +14,6 @@ public class Player extends Observable {
 	private int score;
 	private String name;
 	private PlayerMode playerMode;
-	private Stack<Integer> history;
 
 	/**
 	 * Constructor that creates a new Player and sets the score to zero
@@ -28,6 +26,19 @@ public class Player extends Observable {
 		this.name = name;
 	}
 
+	/**
+	 * Copy constructor that creates a player with the same name, mode and
+	 * score but without observers
+	 * 
+	 * @param player
+	 *            The player to copy
+	 */
+	public Player(Player player) {
+		this(player.name);
+		this.playerMode = player.playerMode;
+		this.score = player.score;
+	}
+
 	/**
 	 * Returns the name of the player
 	 * 
@@ -57,17 +68,13 @@ public class Player extends Observable {
 	}
 
 	/**
-	 * Save the current score of the player
-	 */
-	public void saveScore() {
-		history.push(this.score);
-	}
-
-	/**
-	 * Set the score to the last saved value
+	 * Takes back points of a move that is undone, observers are not notified
+	 * 
+	 * @param amount
+	 *            Number that will be subtracted from the score
 	 */
-	public void undoScore() {
-		this.score = history.pop();
+	void decreaseScore(int amount) {
+		this.score -= amount;
 	}
 
 	/**
@@ -88,8 +95,11 @@ public class Player extends Observable {
 	public void increaseScore(int amount) {
 		this.score += amount;
 
-		this.setChanged();
-		this.notifyObservers(this);
+		// Notifying without observers still copies the observer list
+		if (this.countObservers() > 0) {
+			this.setChanged();
+			this.notifyObservers(this);
+		}
 	}
 
 	/**
@@ -98,7 +108,6 @@ public class Player extends Observable {
 	 */
 	public void resetScore() {
 		this.score = 0;
-		this.history = new Stack<Integer>();
 
 		this.setChanged();
 		this.notifyObservers(this);
@@ -0,0 +1,457 @@
+package gamelogic;
+
+/**
+ * 
+ * Immutable, packed representation of the pits of a game board together with
+ * the side to move. Each pit uses six bits (a pit can never hold more than
+ * {@link GameBoard#TOTALSEEDS} seeds), so one row of pits fits into the lower
+ * 36 bits of a long.
+ * 
+ * The pits are laid out in sowing order: the first long holds the first row
+ * from column 0 to column 5, the second long holds the second row from column
+ * 5 to column 0. This way the twelve pits form a ring where every seed is
+ * dropped into the pit with the next higher index, which allows sowing,
+ * captures and terminal checks to be done with a few word operations instead
+ * of walking the board seed by seed.
+ * 
+ * @author Nic Dorner
+ * 
+ */
+public final class Position {
+
+	/** Number of bits used for a single pit */
+	static final int BITS = 6;
+	/** Number of pits on the whole board */
+	static final int PITS = GameBoard.HEIGHT * GameBoard.WIDTH;
+	/** Mask of a single pit */
+	static final long PIT = (1L << BITS) - 1;
+	/** Mask of all pits of a row */
+	static final long ROW = (1L << (BITS * GameBoard.WIDTH)) - 1;
+	/** The lowest bit of every pit in a row */
+	static final long ONES = ROW / PIT;
+	/** The five lower bits of every pit in a row */
+	static final long LOW_BITS = ONES * (PIT >>> 1);
+	/** The highest bit of every pit in a row */
+	static final long HIGH_BITS = ONES << (BITS - 1);
+	/** Bit of the second word that holds the side to move */
+	private static final long SIDE = 1L << (BITS * GameBoard.WIDTH);
+	/** Multiplier that gathers the lowest bit of every pit into six bits */
+	private static final long GATHER = (1L << 30) | (1L << 25) | (1L << 20) | (1L << 15) | (1L << 10) | (1L << 5);
+
+	/**
+	 * Seeds of the partial lap for every played pit and number of seeds,
+	 * indexed by ((origin * PITS + seeds % PITS) << 1) + row. Full laps add
+	 * one seed to every pit and only need the lap count.
+	 */
+	private static final long[] PARTIAL = new long[PITS * PITS * 2];
+
+	static {
+		for (int origin = 0; origin < PITS; origin++) {
+			for (int seeds = 0; seeds < PITS; seeds++) {
+				int reach = reach(origin, seeds);
+				PARTIAL[(origin * PITS + seeds) << 1] = spread(reach);
+				PARTIAL[((origin * PITS + seeds) << 1) + 1] = spread(reach >>> GameBoard.WIDTH);
+			}
+		}
+	}
+
+	/** Position at the start of a game with the first row to move */
+	public static final Position INITIAL = new Position(ONES * GameBoard.INITIALSEEDS, ONES * GameBoard.INITIALSEEDS);
+
+	private final long first;
+	private final long second;
+
+	/**
+	 * Constructor that packs the raw words
+	 * 
+	 * @param first
+	 *            Pits of the first row
+	 * @param second
+	 *            Pits of the second row and the side to move
+	 */
+	private Position(long first, long second) {
+		this.first = first;
+		this.second = second;
+	}
+
+	/**
+	 * Constructor that creates a position from a two dimensional board
+	 * 
+	 * @param board
+	 *            The seeds of each pit indexed by row and column
+	 * @param sideToMove
+	 *            The row of the player who has to move
+	 */
+	public Position(int[][] board, int sideToMove) {
+		this(pack(board[0], 0), pack(board[1], 1) | (sideToMove == 1 ? SIDE : 0));
+	}
+
+	/**
+	 * Creates a position from the packed words of both rows
+	 * 
+	 * @param first
+	 *            Pits of the first row as returned by {@link #getFirst()}
+	 * @param second
+	 *            Pits of the second row as returned by {@link #getSecond()}
+	 * @param sideToMove
+	 *            The row of the player who has to move
+	 * @return The position
+	 */
+	public static Position of(long first, long second, int sideToMove) {
+		return new Position(first & ROW, (second & ROW) | (sideToMove == 1 ? SIDE : 0));
+	}
+
+	/**
+	 * Returns the packed pits of the first row
+	 * 
+	 * @return Six bits per pit from column 0 to column 5
+	 */
+	public long getFirst() {
+		return this.first;
+	}
+
+	/**
+	 * Returns the packed pits of the second row
+	 * 
+	 * @return Six bits per pit from column 5 to column 0
+	 */
+	public long getSecond() {
+		return this.second & ROW;
+	}
+
+	/**
+	 * Returns the row of the player who has to move
+	 * 
+	 * @return 0 for the first row, 1 for the second row
+	 */
+	public int getSideToMove() {
+		return (this.second & SIDE) == 0 ? 0 : 1;
+	}
+
+	/**
+	 * Returns the number of seeds in the pit
+	 * 
+	 * @param row
+	 *            Number of the row
+	 * @param column
+	 *            Number of the column
+	 * @return The number of seeds in the pit
+	 */
+	public int getPitSeeds(int row, int column) {
+		return (int) ((row == 0 ? this.first : this.second) >>> (BITS * lane(row, column)) & PIT);
+	}
+
+	/**
+	 * Returns the total amount of seeds on the board
+	 * 
+	 * @return Total amount of seeds
+	 */
+	public int getTotalSeeds() {
+		return sum(this.first) + sum(this.second & ROW);
+	}
+
+	/**
+	 * Checks if all pits in a row are empty
+	 * 
+	 * @param row
+	 *            The row that will be checked
+	 * @return True if all pits are empty in this row
+	 */
+	public boolean isEmptyRow(int row) {
+		return ((row == 0 ? this.first : this.second) & ROW) == 0;
+	}
+
+	/**
+	 * Tells if the game is over in this position
+	 * 
+	 * @return True if only two seeds or less remain on the board
+	 */
+	public boolean isTerminal() {
+		return this.getTotalSeeds() <= 2;
+	}
+
+	/**
+	 * Returns the columns the side to move can play
+	 * 
+	 * @return A mask where bit i is set if column i contains seeds
+	 */
+	public int legalMoves() {
+		return legalMoves(this.getSideToMove() == 0 ? this.first : this.second & ROW, this.getSideToMove());
+	}
+
+	/**
+	 * Sows the seeds of the given pit. The pit does not have to belong to the
+	 * side to move; afterwards the other row has to move.
+	 * 
+	 * @param row
+	 *            Number of the row
+	 * @param column
+	 *            Number of the column
+	 * @return The position after the seeds have been sown
+	 */
+	public Position sow(int row, int column) {
+		int origin = ring(row, column);
+		int seeds = (int) ((row == 0 ? this.first : this.second) >>> (BITS * (origin % GameBoard.WIDTH)) & PIT);
+		long first = this.first;
+		long second = this.second & ROW;
+		if (row == 0) {
+			first &= ~(PIT << (BITS * origin));
+		} else {
+			second &= ~(PIT << (BITS * (origin - GameBoard.WIDTH)));
+		}
+		int laps = seeds / PITS;
+		first = sowRow(first, laps, partial(origin, seeds, 0), row != 0);
+		second = sowRow(second, laps, partial(origin, seeds, 1), row != 1);
+		return new Position(first, second | (row == 0 ? SIDE : 0));
+	}
+
+	/**
+	 * Plays the given column for the side to move
+	 * 
+	 * @param column
+	 *            Number of the column
+	 * @return The position after the seeds have been sown
+	 */
+	public Position play(int column) {
+		return this.sow(this.getSideToMove(), column);
+	}
+
+	/**
+	 * Passes the turn to the other side without changing the pits
+	 * 
+	 * @return The position with the other side to move
+	 */
+	public Position pass() {
+		return new Position(this.first, this.second ^ SIDE);
+	}
+
+	/**
+	 * Swaps the two rows and the side to move. Column c of one row becomes
+	 * column 5 - c of the other row, the player to move can make the same
+	 * points as before.
+	 * 
+	 * @return The mirror image of the position
+	 */
+	public Position mirror() {
+		return new Position(this.second & ROW, this.first | (~this.second & SIDE));
+	}
+
+	/**
+	 * Returns the canonical form of the position, the one of the position and
+	 * its mirror image where the first row has to move
+	 * 
+	 * @return This position or its mirror image
+	 */
+	public Position canonical() {
+		return this.getSideToMove() == 0 ? this : this.mirror();
+	}
+
+	/**
+	 * Returns the seeds of the position as a two dimensional board
+	 * 
+	 * @return The seeds of each pit indexed by row and column
+	 */
+	public int[][] toArray() {
+		int[][] board = new int[GameBoard.HEIGHT][GameBoard.WIDTH];
+		for (int i = 0; i < GameBoard.HEIGHT; i++) {
+			for (int j = 0; j < GameBoard.WIDTH; j++) {
+				board[i][j] = this.getPitSeeds(i, j);
+			}
+		}
+		return board;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (obj instanceof Position) {
+			Position other = (Position) obj;
+			return this.first == other.first && this.second == other.second;
+		}
+		return false;
+	}
+
+	@Override
+	public int hashCode() {
+		long mixed = this.first * 0x9E3779B97F4A7C15L ^ this.second;
+		return (int) (mixed ^ (mixed >>> 32));
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder output = new StringBuilder();
+		for (int i = 0; i < GameBoard.HEIGHT; i++) {
+			output.append(i == this.getSideToMove() ? "*" : " ");
+			for (int j = 0; j < GameBoard.WIDTH; j++) {
+				output.append("|");
+				output.append(this.getPitSeeds(i, j));
+			}
+			output.append("|");
+			if (i == 0) {
+				output.append("\n");
+			}
+		}
+		return output.toString();
+	}
+
+	/**
+	 * Packs a row of pits into a word
+	 * 
+	 * @param pits
+	 *            The seeds of the row indexed by column
+	 * @param row
+	 *            Number of the row
+	 * @return The packed row
+	 */
+	static long pack(int[] pits, int row) {
+		long word = 0;
+		for (int j = 0; j < GameBoard.WIDTH; j++) {
+			word |= (pits[j] & PIT) << (BITS * lane(row, j));
+		}
+		return word;
+	}
+
+	/**
+	 * Returns the lane of a pit inside the word of its row
+	 * 
+	 * @param row
+	 *            Number of the row
+	 * @param column
+	 *            Number of the column
+	 * @return Index of the pit inside its word
+	 */
+	static int lane(int row, int column) {
+		return row == 0 ? column : GameBoard.WIDTH - 1 - column;
+	}
+
+	/**
+	 * Returns the index of a pit on the ring of all pits
+	 * 
+	 * @param row
+	 *            Number of the row
+	 * @param column
+	 *            Number of the column
+	 * @return Index between 0 and 11 in sowing order
+	 */
+	static int ring(int row, int column) {
+		return row * GameBoard.WIDTH + lane(row, column);
+	}
+
+	/**
+	 * Returns a ring mask of the pits that receive the seeds of a partial lap
+	 * 
+	 * @param origin
+	 *            Index of the played pit on the ring
+	 * @param seeds
+	 *            Number of seeds of the partial lap (less than 12)
+	 * @return Twelve bit mask with one bit per pit in ring order
+	 */
+	static int reach(int origin, int seeds) {
+		int mask = ((1 << seeds) - 1) << (origin + 1);
+		return (mask | (mask >>> PITS)) & ((1 << PITS) - 1);
+	}
+
+	/**
+	 * Returns the pits of a row that receive a seed in the partial lap
+	 * 
+	 * @param origin
+	 *            Index of the played pit on the ring
+	 * @param seeds
+	 *            Number of sown seeds, full laps are ignored
+	 * @param row
+	 *            Number of the row that receives the seeds
+	 * @return Word with a one in each pit that receives a seed
+	 */
+	static long partial(int origin, int seeds, int row) {
+		return PARTIAL[((origin * PITS + seeds % PITS) << 1) + row];
+	}
+
+	/**
+	 * Spreads the lower six bits of a mask into the lowest bit of each pit
+	 * 
+	 * @param mask
+	 *            Mask with one bit per pit
+	 * @return Word with a one in each selected pit
+	 */
+	static long spread(int mask) {
+		long word = 0;
+		for (int i = 0; i < GameBoard.WIDTH; i++) {
+			word |= (long) ((mask >>> i) & 1) << (BITS * i);
+		}
+		return word;
+	}
+
+	/**
+	 * Sows into one row: every pit receives one seed per full lap and the pits
+	 * in the partial mask receive one more. If the row belongs to the opponent
+	 * a pit that already held a single seed is emptied whenever a seed lands
+	 * in it.
+	 * 
+	 * @param word
+	 *            The packed row before sowing
+	 * @param laps
+	 *            Number of full laps around the board
+	 * @param partial
+	 *            Pits that receive a seed in the last, partial lap
+	 * @param capture
+	 *            True if seeds are eaten in this row
+	 * @return The packed row after sowing
+	 */
+	static long sowRow(long word, int laps, long partial, boolean capture) {
+		if (!capture) {
+			return word + ONES * laps + partial;
+		}
+		for (int i = 0; i < laps; i++) {
+			word = drop(word, ONES);
+		}
+		return drop(word, partial);
+	}
+
+	/**
+	 * Drops one seed into each of the given pits of an opponent row and eats
+	 * the pits that end up with two seeds
+	 * 
+	 * @param word
+	 *            The packed row
+	 * @param seeds
+	 *            Word with a one in each pit that receives a seed
+	 * @return The packed row after the seeds were dropped
+	 */
+	private static long drop(long word, long seeds) {
+		word += seeds;
+		// A pit is eaten if it received a seed and now holds exactly two
+		long twos = word ^ (ONES << 1);
+		long nonZero = (((twos & LOW_BITS) + LOW_BITS) | twos) & HIGH_BITS;
+		long eaten = (~nonZero & HIGH_BITS) >>> (BITS - 1) & seeds;
+		return word & ~(eaten * PIT);
+	}
+
+	/**
+	 * Sums up all pits of a packed row
+	 * 
+	 * @param word
+	 *            The packed row
+	 * @return Total amount of seeds in the row
+	 */
+	static int sum(long word) {
+		// All partial sums stay below 64, so no pit overflows into the next
+		return (int) ((word * ONES) >>> (BITS * (GameBoard.WIDTH - 1)) & PIT);
+	}
+
+	/**
+	 * Returns the playable columns of a packed row
+	 * 
+	 * @param word
+	 *            The packed row
+	 * @param row
+	 *            Number of the row
+	 * @return A mask where bit i is set if column i contains seeds
+	 */
+	static int legalMoves(long word, int row) {
+		long nonZero = ((((word & LOW_BITS) + LOW_BITS) | word) & HIGH_BITS) >>> (BITS - 1);
+		int mask = (int) ((nonZero * GATHER) >>> 30) & ((1 << GameBoard.WIDTH) - 1);
+		if (row == 1) {
+			mask = Integer.reverse(mask) >>> (Integer.SIZE - GameBoard.WIDTH);
+		}
+		return mask;
+	}
+}
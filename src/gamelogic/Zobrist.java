@@ -0,0 +1,163 @@
+package gamelogic;
+
+import java.util.SplittableRandom;
+
+/**
+ * 
+ * Zobrist keys to identify a state of the game by a 64 bit hash. Every pit and
+ * every possible number of seeds in it has its own random key, the hash of a
+ * board is the xor of the keys of all pits. Additional keys are mixed in for
+ * the side to move and the score difference.
+ * 
+ * The board is point symmetric: swapping the two rows and the side to move
+ * gives a position in which the player to move can make the same points. The
+ * keys of the second row are the keys of the first row rotated by 32 bits, so
+ * the hash of the swapped pits is the hash of the pits rotated by 32 bits and
+ * both forms of a position can be hashed without walking the board.
+ * 
+ * The keys are created from a fixed seed so hashes stay the same between runs
+ * and can be written to files.
+ * 
+ * @author Nic Dorner
+ * 
+ */
+public final class Zobrist {
+
+	/** Keys by index of the pit on the ring and number of seeds in it */
+	private static final long[][] PITS = new long[Position.PITS][(int) Position.PIT + 1];
+	/** Key that is mixed in if the second row has to move */
+	private static final long SIDE;
+	/** Keys by score difference, offset by the total seeds */
+	private static final long[] SCORES = new long[GameBoard.TOTALSEEDS + 1];
+
+	static {
+		SplittableRandom random = new SplittableRandom(0x5552494CL);
+		for (int pit = 0; pit < GameBoard.WIDTH; pit++) {
+			for (int i = 0; i < PITS[pit].length; i++) {
+				PITS[pit][i] = random.nextLong();
+				PITS[pit + GameBoard.WIDTH][i] = Long.rotateLeft(PITS[pit][i], 32);
+			}
+		}
+		// An empty board hashes to zero
+		for (long[] pit : PITS) {
+			pit[0] = 0;
+		}
+		SIDE = random.nextLong();
+		for (int i = 0; i < SCORES.length; i++) {
+			SCORES[i] = random.nextLong();
+		}
+		SCORES[GameBoard.TOTALSEEDS / 2] = 0;
+	}
+
+	private Zobrist() {
+	}
+
+	/**
+	 * Calculates the hash of the pits from scratch
+	 * 
+	 * @param first
+	 *            The packed first row
+	 * @param second
+	 *            The packed second row
+	 * @return Hash of all pits
+	 */
+	public static long pits(long first, long second) {
+		return row(first, 0) ^ row(second & Position.ROW, GameBoard.WIDTH);
+	}
+
+	/**
+	 * Calculates the hash of a position including the side to move
+	 * 
+	 * @param position
+	 *            The position to hash
+	 * @return Hash of the pits and the side to move
+	 */
+	public static long hash(Position position) {
+		return pits(position.getFirst(), position.getSecond()) ^ side(position.getSideToMove());
+	}
+
+	/**
+	 * Calculates the hash of the canonical form of a position, the form where
+	 * the first row has to move
+	 * 
+	 * @param position
+	 *            The position to hash
+	 * @return The same hash for a position and its mirror image
+	 */
+	public static long canonical(Position position) {
+		long pits = pits(position.getFirst(), position.getSecond());
+		return position.getSideToMove() == 0 ? pits : mirror(pits);
+	}
+
+	/**
+	 * Converts the hash of the pits into the hash of the pits with the two
+	 * rows swapped
+	 * 
+	 * @param pits
+	 *            Hash of the pits without side to move and score
+	 * @return Hash of the mirror image of the pits
+	 */
+	public static long mirror(long pits) {
+		return Long.rotateLeft(pits, 32);
+	}
+
+	/**
+	 * Returns the key of the side to move
+	 * 
+	 * @param sideToMove
+	 *            The row of the player who has to move
+	 * @return The key to mix into the hash
+	 */
+	public static long side(int sideToMove) {
+		return sideToMove == 0 ? 0 : SIDE;
+	}
+
+	/**
+	 * Returns the key of a score difference
+	 * 
+	 * @param difference
+	 *            Score of the first row minus the score of the second row
+	 * @return The key to mix into the hash
+	 */
+	public static long score(int difference) {
+		return SCORES[difference + GameBoard.TOTALSEEDS / 2];
+	}
+
+	/**
+	 * Updates the hash of the pits of a row for all pits that changed
+	 * 
+	 * @param hash
+	 *            The current hash
+	 * @param before
+	 *            The packed row before the change
+	 * @param after
+	 *            The packed row after the change
+	 * @param offset
+	 *            Index of the first pit of the row on the ring
+	 * @return The updated hash
+	 */
+	static long update(long hash, long before, long after, int offset) {
+		long changed = before ^ after;
+		while (changed != 0) {
+			int lane = Long.numberOfTrailingZeros(changed) / Position.BITS;
+			int shift = Position.BITS * lane;
+			long[] keys = PITS[offset + lane];
+			hash ^= keys[(int) (before >>> shift & Position.PIT)] ^ keys[(int) (after >>> shift & Position.PIT)];
+			changed &= ~(Position.PIT << shift);
+		}
+		return hash;
+	}
+
+	/**
+	 * Calculates the hash of a packed row
+	 * 
+	 * @param word
+	 *            The packed row
+	 * @param offset
+	 *            Index of the first pit of the row on the ring
+	 * @return Hash of the pits in this row
+	 */
+	private static long row(long word, int offset) {
+		return update(0, 0, word, offset);
+	}
+}
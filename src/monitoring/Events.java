@@ -0,0 +1,172 @@
+package monitoring;
+
+/**
+ * Records the events of the game for the Java Flight Recorder. The events
+ * are only created if the virtual machine is started with
+ * -Duril.events=true and supports the jdk.jfr API (8u262 or 11 and later).
+ * Otherwise ENABLED is a constant false, the calls are removed by the JIT
+ * compiler and no class of the recorder is loaded.
+ * 
+ * Every event is started with a begin method that returns the event as an
+ * Object and finished by the matching end method, so the callers do not
+ * depend on the classes of the recorder. A recording is started as usual,
+ * for example with -XX:StartFlightRecording.
+ * 
+ * @author Nic Dorner
+ *
+ */
+public final class Events {
+
+	/** True if the events are recorded */
+	public static final boolean ENABLED = Boolean.getBoolean("uril.events") && isAvailable();
+
+	private Events() {
+	}
+
+	/**
+	 * Checks if the virtual machine has the API of the recorder
+	 * 
+	 * @return True if the events can be created
+	 */
+	private static boolean isAvailable() {
+		try {
+			Class.forName("jdk.jfr.Event");
+			return true;
+		} catch (ClassNotFoundException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Starts the event of a turn that is played
+	 * 
+	 * @return The event
+	 */
+	public static Object beginTurn() {
+		TurnEvent event = new TurnEvent();
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * Finishes the event of a turn
+	 * 
+	 * @param event
+	 *            The event returned by beginTurn
+	 * @param row
+	 *            The row of the player who played the turn
+	 * @param column
+	 *            The played column
+	 * @param score
+	 *            The points the player got
+	 */
+	public static void endTurn(Object event, int row, int column, int score) {
+		TurnEvent turn = (TurnEvent) event;
+		turn.end();
+		if (turn.shouldCommit()) {
+			turn.row = row;
+			turn.column = column;
+			turn.score = score;
+			turn.commit();
+		}
+	}
+
+	/**
+	 * Starts the event of a computer player calculating its turn
+	 * 
+	 * @return The event
+	 */
+	public static Object beginSearch() {
+		SearchEvent event = new SearchEvent();
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * Finishes the event of a calculated turn
+	 * 
+	 * @param event
+	 *            The event returned by beginSearch
+	 * @param player
+	 *            The kind of computer player
+	 * @param depth
+	 *            The number of turns the completed search looked ahead
+	 * @param nodes
+	 *            The number of searched nodes
+	 * @param column
+	 *            The chosen column
+	 */
+	public static void endSearch(Object event, String player, int depth, long nodes, int column) {
+		SearchEvent search = (SearchEvent) event;
+		search.end();
+		if (search.shouldCommit()) {
+			search.player = player;
+			search.depth = depth;
+			search.nodes = nodes;
+			search.column = column;
+			search.commit();
+		}
+	}
+
+	/**
+	 * Starts the event of writing the statistics
+	 * 
+	 * @return The event
+	 */
+	public static Object beginStatisticsWrite() {
+		StatisticsWriteEvent event = new StatisticsWriteEvent();
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * Finishes the event of writing the statistics
+	 * 
+	 * @param event
+	 *            The event returned by beginStatisticsWrite
+	 * @param file
+	 *            The path of the written file
+	 * @param games
+	 *            The number of games in the statistics
+	 */
+	public static void endStatisticsWrite(Object event, String file, long games) {
+		StatisticsWriteEvent write = (StatisticsWriteEvent) event;
+		write.end();
+		if (write.shouldCommit()) {
+			write.file = file;
+			write.games = games;
+			write.commit();
+		}
+	}
+
+	/**
+	 * Starts the event of an update of the view
+	 * 
+	 * @return The event
+	 */
+	public static Object beginViewUpdate() {
+		ViewUpdateEvent event = new ViewUpdateEvent();
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * Finishes the event of an update of the view
+	 * 
+	 * @param event
+	 *            The event returned by beginViewUpdate
+	 * @param source
+	 *            The kind of model that changed
+	 * @param changedPits
+	 *            The number of pits that were updated
+	 */
+	public static void endViewUpdate(Object event, String source, int changedPits) {
+		ViewUpdateEvent update = (ViewUpdateEvent) event;
+		update.end();
+		if (update.shouldCommit()) {
+			update.source = source;
+			update.changedPits = changedPits;
+			update.commit();
+		}
+	}
+}
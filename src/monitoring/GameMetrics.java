@@ -0,0 +1,72 @@
+package monitoring;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters of the played games and the written statistics
+ * 
+ * @author Nic Dorner
+ *
+ */
+public class GameMetrics implements GameMetricsMBean {
+	private final AtomicLong gamesStarted = new AtomicLong();
+	private final AtomicLong gamesFinished = new AtomicLong();
+	private final Meter moves = new Meter();
+	private final Histogram statisticsWrites = new Histogram();
+
+	void gameStarted() {
+		gamesStarted.incrementAndGet();
+	}
+
+	void gameFinished() {
+		gamesFinished.incrementAndGet();
+	}
+
+	void move() {
+		moves.mark();
+	}
+
+	void statisticsWritten(long nanos) {
+		statisticsWrites.record(nanos);
+	}
+
+	@Override
+	public long getGamesStarted() {
+		return gamesStarted.get();
+	}
+
+	@Override
+	public long getGamesFinished() {
+		return gamesFinished.get();
+	}
+
+	@Override
+	public long getMoves() {
+		return moves.getCount();
+	}
+
+	@Override
+	public double getMovesPerSecond() {
+		return moves.getRate();
+	}
+
+	@Override
+	public long getStatisticsWrites() {
+		return statisticsWrites.getCount();
+	}
+
+	@Override
+	public double getStatisticsWriteMeanMillis() {
+		return statisticsWrites.getMean() / 1e6;
+	}
+
+	@Override
+	public double getStatisticsWriteMaxMillis() {
+		return statisticsWrites.getMax() / 1e6;
+	}
+
+	@Override
+	public void reset() {
+		statisticsWrites.reset();
+	}
+}
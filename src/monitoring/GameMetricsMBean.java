@@ -0,0 +1,34 @@
+package monitoring;
+
+/**
+ * Management interface of the metrics of the games, registered as
+ * uril:type=GameMetrics
+ * 
+ * @author Nic Dorner
+ *
+ */
+public interface GameMetricsMBean {
+
+	long getGamesStarted();
+
+	long getGamesFinished();
+
+	long getMoves();
+
+	/**
+	 * @return Played turns per second over the last minute
+	 */
+	double getMovesPerSecond();
+
+	long getStatisticsWrites();
+
+	double getStatisticsWriteMeanMillis();
+
+	double getStatisticsWriteMaxMillis();
+
+	/**
+	 * Clears the latencies of writing the statistics, the counters of the
+	 * games keep running
+	 */
+	void reset();
+}
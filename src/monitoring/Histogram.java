@@ -0,0 +1,133 @@
+package monitoring;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Distribution of non-negative values, for example durations in
+ * nanoseconds. Each power of two is split into 16 buckets, so a percentile
+ * is at most 1/16 above the real value. Recording neither locks nor
+ * allocates and can be done by several threads at once.
+ * 
+ * @author Nic Dorner
+ *
+ */
+public class Histogram {
+	private static final int SUB_BITS = 4;
+	private static final int SUB_COUNT = 1 << SUB_BITS;
+
+	// Values below SUB_COUNT have a bucket each, larger values have
+	// SUB_COUNT buckets per power of two
+	private final AtomicLongArray counts = new AtomicLongArray((Long.SIZE - SUB_BITS + 1) * SUB_COUNT);
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong sum = new AtomicLong();
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Adds a value to the distribution
+	 * 
+	 * @param value
+	 *            The value, negative values are counted as 0
+	 */
+	public void record(long value) {
+		value = Math.max(0, value);
+		this.counts.incrementAndGet(index(value));
+		this.count.incrementAndGet();
+		this.sum.addAndGet(value);
+		this.max.accumulateAndGet(value, Math::max);
+	}
+
+	/**
+	 * Returns the bucket of a value
+	 * 
+	 * @param value
+	 *            The non-negative value
+	 * @return The index of the bucket
+	 */
+	static int index(long value) {
+		if (value < SUB_COUNT) {
+			return (int) value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_COUNT - 1);
+		return (exponent - SUB_BITS + 1) * SUB_COUNT + sub;
+	}
+
+	/**
+	 * Returns the smallest value of a bucket
+	 * 
+	 * @param index
+	 *            The index of the bucket
+	 * @return The smallest value that is counted in the bucket
+	 */
+	static long lowestValue(int index) {
+		if (index < SUB_COUNT) {
+			return index;
+		}
+		int exponent = index / SUB_COUNT + SUB_BITS - 1;
+		long sub = index % SUB_COUNT;
+		return (SUB_COUNT + sub) << (exponent - SUB_BITS);
+	}
+
+	public long getCount() {
+		return count.get();
+	}
+
+	public long getSum() {
+		return sum.get();
+	}
+
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * Returns the average of all values
+	 * 
+	 * @return The average or 0 if nothing was recorded
+	 */
+	public double getMean() {
+		long count = this.count.get();
+		return count == 0 ? 0 : (double) this.sum.get() / count;
+	}
+
+	/**
+	 * Returns the value below which the given share of all values lies
+	 * 
+	 * @param quantile
+	 *            The share between 0 and 1, for example 0.99
+	 * @return The highest value of the bucket the percentile falls into but
+	 *         at most the largest value, 0 if nothing was recorded
+	 */
+	public long getPercentile(double quantile) {
+		long total = 0;
+		for (int i = 0; i < this.counts.length(); i++) {
+			total += this.counts.get(i);
+		}
+		if (total == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(quantile * total));
+		long seen = 0;
+		for (int i = 0; i < this.counts.length(); i++) {
+			seen += this.counts.get(i);
+			if (seen >= rank) {
+				long highest = i + 1 < this.counts.length() ? lowestValue(i + 1) - 1 : Long.MAX_VALUE;
+				return Math.min(highest, this.max.get());
+			}
+		}
+		return this.max.get();
+	}
+
+	/**
+	 * Removes all values
+	 */
+	public void reset() {
+		for (int i = 0; i < this.counts.length(); i++) {
+			this.counts.set(i, 0);
+		}
+		this.count.set(0);
+		this.sum.set(0);
+		this.max.set(0);
+	}
+}
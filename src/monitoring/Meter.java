@@ -0,0 +1,65 @@
+package monitoring;
+
+/**
+ * Counts events and their rate over the last minute. The events are added up
+ * per second in a ring of 60 slots, a slot is cleared when its second comes
+ * around again.
+ * 
+ * @author Nic Dorner
+ *
+ */
+public class Meter {
+	private static final int SECONDS = 60;
+
+	private final long[] counts = new long[SECONDS];
+	private final long[] seconds = new long[SECONDS];
+	private long total;
+
+	/**
+	 * Counts one event
+	 */
+	public void mark() {
+		this.mark(1);
+	}
+
+	/**
+	 * Counts several events
+	 * 
+	 * @param events
+	 *            The number of events
+	 */
+	public synchronized void mark(long events) {
+		long second = second();
+		int slot = (int) Math.floorMod(second, (long) SECONDS);
+		if (this.seconds[slot] != second) {
+			this.seconds[slot] = second;
+			this.counts[slot] = 0;
+		}
+		this.counts[slot] += events;
+		this.total += events;
+	}
+
+	public synchronized long getCount() {
+		return total;
+	}
+
+	/**
+	 * Returns the rate of the events
+	 * 
+	 * @return Events per second over the last minute
+	 */
+	public synchronized double getRate() {
+		long second = second();
+		long events = 0;
+		for (int slot = 0; slot < SECONDS; slot++) {
+			if (second - this.seconds[slot] < SECONDS) {
+				events += this.counts[slot];
+			}
+		}
+		return (double) events / SECONDS;
+	}
+
+	private static long second() {
+		return System.nanoTime() / 1000000000L;
+	}
+}
@@ -0,0 +1,116 @@
+package monitoring;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Registry of the live metrics of the game. The metrics are registered as
+ * MBeans on the platform MBean server when they are first used and can be
+ * watched with any JMX client, for example jconsole or the JMX port of the
+ * virtual machine (-Dcom.sun.management.jmxremote).
+ * 
+ * @author Nic Dorner
+ *
+ */
+public final class Metrics {
+	private static final String DOMAIN = "uril";
+	private static final GameMetrics GAME = register(new GameMetrics(), "type=GameMetrics");
+	private static final ConcurrentMap<String, PlayerMetrics> PLAYERS = new ConcurrentHashMap<>();
+
+	private Metrics() {
+	}
+
+	/**
+	 * Counts a started game
+	 */
+	public static void gameStarted() {
+		GAME.gameStarted();
+	}
+
+	/**
+	 * Counts a finished game
+	 */
+	public static void gameFinished() {
+		GAME.gameFinished();
+	}
+
+	/**
+	 * Counts a played turn
+	 */
+	public static void move() {
+		GAME.move();
+	}
+
+	/**
+	 * Records the time it took to write the statistics
+	 * 
+	 * @param nanos
+	 *            The duration in nanoseconds
+	 */
+	public static void statisticsWritten(long nanos) {
+		GAME.statisticsWritten(nanos);
+	}
+
+	/**
+	 * Records a turn calculated by a computer player
+	 * 
+	 * @param player
+	 *            The kind of computer player
+	 * @param nanos
+	 *            The time the calculation took in nanoseconds
+	 * @param nodes
+	 *            The number of searched nodes
+	 */
+	public static void computerTurn(String player, long nanos, long nodes) {
+		PLAYERS.computeIfAbsent(player, name -> register(new PlayerMetrics(), "type=PlayerMetrics,name=" + name))
+				.turn(nanos, nodes);
+	}
+
+	/**
+	 * Returns the metrics of the games
+	 * 
+	 * @return The metrics that are registered as uril:type=GameMetrics
+	 */
+	public static GameMetricsMBean getGameMetrics() {
+		return GAME;
+	}
+
+	/**
+	 * Returns the metrics of a kind of computer player
+	 * 
+	 * @param player
+	 *            The kind of computer player
+	 * @return The metrics or null if the player did not calculate a turn yet
+	 */
+	public static PlayerMetricsMBean getPlayerMetrics(String player) {
+		return PLAYERS.get(player);
+	}
+
+	/**
+	 * Registers metrics on the platform MBean server. If that fails the
+	 * metrics are still counted but not visible over JMX.
+	 * 
+	 * @param metrics
+	 *            The metrics
+	 * @param properties
+	 *            The key properties of the name of the MBean
+	 * @return The metrics
+	 */
+	private static <T> T register(T metrics, String properties) {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(DOMAIN + ":" + properties);
+			if (!server.isRegistered(name)) {
+				server.registerMBean(metrics, name);
+			}
+		} catch (JMException | SecurityException e) {
+			e.printStackTrace();
+		}
+		return metrics;
+	}
+}
@@ -0,0 +1,66 @@
+package monitoring;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latencies and search speed of the turns of one kind of computer player
+ * 
+ * @author Nic Dorner
+ *
+ */
+public class PlayerMetrics implements PlayerMetricsMBean {
+	private final Histogram latency = new Histogram();
+	private final AtomicLong nodes = new AtomicLong();
+
+	void turn(long nanos, long nodes) {
+		this.latency.record(nanos);
+		this.nodes.addAndGet(nodes);
+	}
+
+	@Override
+	public long getTurns() {
+		return latency.getCount();
+	}
+
+	@Override
+	public double getLatencyMeanMillis() {
+		return latency.getMean() / 1e6;
+	}
+
+	@Override
+	public double getLatency50thPercentileMillis() {
+		return latency.getPercentile(0.5) / 1e6;
+	}
+
+	@Override
+	public double getLatency90thPercentileMillis() {
+		return latency.getPercentile(0.9) / 1e6;
+	}
+
+	@Override
+	public double getLatency99thPercentileMillis() {
+		return latency.getPercentile(0.99) / 1e6;
+	}
+
+	@Override
+	public double getLatencyMaxMillis() {
+		return latency.getMax() / 1e6;
+	}
+
+	@Override
+	public long getNodes() {
+		return nodes.get();
+	}
+
+	@Override
+	public double getNodesPerSecond() {
+		long nanos = latency.getSum();
+		return nanos == 0 ? 0 : nodes.get() * 1e9 / nanos;
+	}
+
+	@Override
+	public void reset() {
+		latency.reset();
+		nodes.set(0);
+	}
+}
@@ -0,0 +1,35 @@
+package monitoring;
+
+/**
+ * Management interface of the metrics of one kind of computer player,
+ * registered as uril:type=PlayerMetrics,name=&lt;player&gt;
+ * 
+ * @author Nic Dorner
+ *
+ */
+public interface PlayerMetricsMBean {
+
+	long getTurns();
+
+	double getLatencyMeanMillis();
+
+	double getLatency50thPercentileMillis();
+
+	double getLatency90thPercentileMillis();
+
+	double getLatency99thPercentileMillis();
+
+	double getLatencyMaxMillis();
+
+	long getNodes();
+
+	/**
+	 * @return Searched nodes per second of calculation time
+	 */
+	double getNodesPerSecond();
+
+	/**
+	 * Clears all counters of the player
+	 */
+	void reset();
+}
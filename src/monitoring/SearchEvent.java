@@ -0,0 +1,32 @@
+package monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The calculation of a turn by a computer player
+ * 
+ * @author Nic Dorner
+ *
+ */
+@Name("uril.Search")
+@Label("Search")
+@Category("Uril")
+@Description("A computer player calculating its turn")
+class SearchEvent extends jdk.jfr.Event {
+	@Label("Player")
+	String player;
+
+	@Label("Depth")
+	@Description("Turns the completed search looked ahead")
+	int depth;
+
+	@Label("Nodes")
+	long nodes;
+
+	@Label("Column")
+	@Description("The column that was chosen")
+	int column;
+}
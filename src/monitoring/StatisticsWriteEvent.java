@@ -0,0 +1,22 @@
+package monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Writing the statistics of all games to their file
+ * 
+ * @author Nic Dorner
+ *
+ */
+@Name("uril.StatisticsWrite")
+@Label("Statistics Write")
+@Category("Uril")
+class StatisticsWriteEvent extends jdk.jfr.Event {
+	@Label("File")
+	String file;
+
+	@Label("Games Played")
+	long games;
+}
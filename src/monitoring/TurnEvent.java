@@ -0,0 +1,29 @@
+package monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A turn that was played in an observed game, turns played by the searches
+ * of the computer players are not recorded
+ * 
+ * @author Nic Dorner
+ *
+ */
+@Name("uril.Turn")
+@Label("Turn")
+@Category("Uril")
+@Description("A turn played in the game shown to the players")
+class TurnEvent extends jdk.jfr.Event {
+	@Label("Row")
+	int row;
+
+	@Label("Column")
+	int column;
+
+	@Label("Score")
+	@Description("Points the player got for the turn")
+	int score;
+}
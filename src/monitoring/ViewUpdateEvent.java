@@ -0,0 +1,25 @@
+package monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * An update of the view after a model changed
+ * 
+ * @author Nic Dorner
+ *
+ */
+@Name("uril.ViewUpdate")
+@Label("View Update")
+@Category("Uril")
+@Description("The game view handling a change of the game, the gameboard or a player")
+class ViewUpdateEvent extends jdk.jfr.Event {
+	@Label("Source")
+	@Description("The kind of model that changed")
+	String source;
+
+	@Label("Changed Pits")
+	int changedPits;
+}
@@ -0,0 +1,208 @@
+package simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import computerplayer.Defensive;
+import computerplayer.Greedy;
+import computerplayer.MCTS;
+import computerplayer.MinMax;
+import computerplayer.Random;
+import computerplayer.TurnCalculator;
+import gamelogic.Game;
+import gamelogic.GameBoard;
+import gamelogic.Player;
+
+/**
+ * Plays games between two computer players without a userinterface. The
+ * games are split into batches that run on all cores, every thread creates
+ * its own players, so calculators that keep state between turns are never
+ * shared. Nothing observes the games, so no notifications are sent.
+ * 
+ * The players switch rows after every game, player A starts the games with
+ * an even number.
+ * 
+ * @author Nic Dorner
+ * 
+ */
+public class SelfPlay {
+
+	// Turns after which a game is stopped, players can sow around forever
+	private static final int MAX_TURNS = 1000;
+	// Games played by a thread before it reports back
+	private static final int BATCH_SIZE = 100;
+
+	private final Supplier<TurnCalculator> playerA;
+	private final Supplier<TurnCalculator> playerB;
+	private int threads = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * Constructor that takes factories for both players, each thread calls
+	 * them once
+	 * 
+	 * @param playerA
+	 *            Creates the calculator of player A
+	 * @param playerB
+	 *            Creates the calculator of player B
+	 */
+	public SelfPlay(Supplier<TurnCalculator> playerA, Supplier<TurnCalculator> playerB) {
+		this.playerA = playerA;
+		this.playerB = playerB;
+	}
+
+	/**
+	 * Sets the number of threads that play games
+	 * 
+	 * @param threads
+	 *            The number of threads
+	 */
+	public void setThreads(int threads) {
+		this.threads = Math.max(1, threads);
+	}
+
+	/**
+	 * Plays the games and waits until all are done
+	 * 
+	 * @param games
+	 *            The number of games
+	 * @throws InterruptedException
+	 *             Thrown if the thread is interrupted while waiting
+	 * @return The results of all games
+	 */
+	public SimulationResult run(int games) throws InterruptedException {
+		long start = System.nanoTime();
+		ExecutorService executor = Executors.newFixedThreadPool(this.threads);
+		// One set of players per thread, a batch runs on one thread only
+		ThreadLocal<TurnCalculator[]> players = ThreadLocal
+				.withInitial(() -> new TurnCalculator[] { this.playerA.get(), this.playerB.get() });
+		List<Future<SimulationResult>> batches = new ArrayList<Future<SimulationResult>>();
+		try {
+			for (int first = 0; first < games; first += BATCH_SIZE) {
+				int from = first;
+				int to = Math.min(games, first + BATCH_SIZE);
+				Callable<SimulationResult> batch = () -> playBatch(players.get(), from, to);
+				batches.add(executor.submit(batch));
+			}
+			SimulationResult result = new SimulationResult();
+			for (Future<SimulationResult> batch : batches) {
+				result.merge(batch.get());
+			}
+			result.setNanos(System.nanoTime() - start);
+			return result;
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("A game could not be played.", e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Plays a range of games
+	 * 
+	 * @param players
+	 *            The calculators of player A and player B
+	 * @param from
+	 *            Number of the first game
+	 * @param to
+	 *            Number after the last game
+	 * @return The results of the games
+	 */
+	private static SimulationResult playBatch(TurnCalculator[] players, int from, int to) {
+		SimulationResult result = new SimulationResult();
+		for (int i = from; i < to; i++) {
+			// Player A plays the first row in even games
+			int rowOfA = i % 2;
+			TurnCalculator[] rows = { players[rowOfA], players[1 - rowOfA] };
+			Player first = new Player("A");
+			Player second = new Player("B");
+			Game game = new Game(new GameBoard(), first, second);
+			int turns = 0;
+			while (!game.hasEnded() && turns < MAX_TURNS) {
+				if (!game.validatePlayable()) {
+					continue;
+				}
+				int column = rows[game.getTurn()].calculateTurn(game);
+				if (game.playTurn(column) == -1) {
+					throw new IllegalStateException("Column " + column + " can not be played.");
+				}
+				turns++;
+			}
+			int winner = -1;
+			if (game.hasEnded()) {
+				int winnerRow = game.getWinner() == first ? 0 : 1;
+				winner = winnerRow == rowOfA ? 0 : 1;
+			}
+			result.addGame(winner, turns);
+		}
+		return result;
+	}
+
+	/**
+	 * Creates the factory of a player from its name
+	 * 
+	 * @param name
+	 *            random, greedy, defensive, minmax:depth or mcts:iterations
+	 * @throws IllegalArgumentException
+	 *             Thrown if the name is unknown
+	 * @return The factory of the player
+	 */
+	public static Supplier<TurnCalculator> player(String name) {
+		String[] parts = name.split(":");
+		switch (parts[0]) {
+			case "random":
+				return Random::new;
+			case "greedy":
+				return Greedy::new;
+			case "defensive":
+				return Defensive::new;
+			case "minmax": {
+				int depth = parts.length > 1 ? Integer.parseInt(parts[1]) : 8;
+				return () -> {
+					MinMax minMax = new MinMax();
+					minMax.setDepth(depth);
+					return minMax;
+				};
+			}
+			case "mcts": {
+				int iterations = parts.length > 1 ? Integer.parseInt(parts[1]) : 1000;
+				return () -> {
+					MCTS monteCarlo = new MCTS();
+					monteCarlo.setIterations(iterations);
+					return monteCarlo;
+				};
+			}
+			default:
+				throw new IllegalArgumentException("Unknown player " + name);
+		}
+	}
+
+	/**
+	 * Runs a simulation from the command line
+	 * 
+	 * @param args
+	 *            Player A, player B, the number of games (default 1000) and
+	 *            the number of threads (default all cores)
+	 * @throws InterruptedException
+	 *             Thrown if the simulation is interrupted
+	 */
+	public static void main(String[] args) throws InterruptedException {
+		if (args.length < 2) {
+			System.err.println("Usage: SelfPlay <playerA> <playerB> [games] [threads]");
+			System.err.println("Players: random, greedy, defensive, minmax:<depth>, mcts:<iterations>");
+			return;
+		}
+		SelfPlay selfPlay = new SelfPlay(player(args[0]), player(args[1]));
+		if (args.length > 3) {
+			selfPlay.setThreads(Integer.parseInt(args[3]));
+		}
+		int games = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+		System.out.println(args[0] + " (A) against " + args[1] + " (B)");
+		System.out.println(selfPlay.run(games));
+	}
+}
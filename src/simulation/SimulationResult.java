@@ -0,0 +1,138 @@
+package simulation;
+
+/**
+ * Results of a batch of games between two players. Player A is the first
+ * player given to the simulation, no matter which row it played.
+ * 
+ * @author Nic Dorner
+ * 
+ */
+public class SimulationResult {
+	private int games;
+	private int winsA;
+	private int winsB;
+	private int unfinished;
+	private long turns;
+	private int minTurns = Integer.MAX_VALUE;
+	private int maxTurns;
+	private long nanos;
+
+	/**
+	 * Adds the result of a single game
+	 * 
+	 * @param winner
+	 *            0 if player A won, 1 if player B won or -1 if the game was
+	 *            stopped before it ended
+	 * @param turns
+	 *            The number of turns played, passes are not counted
+	 */
+	public void addGame(int winner, int turns) {
+		this.games++;
+		if (winner == 0) {
+			this.winsA++;
+		} else if (winner == 1) {
+			this.winsB++;
+		} else {
+			this.unfinished++;
+		}
+		this.turns += turns;
+		this.minTurns = Math.min(this.minTurns, turns);
+		this.maxTurns = Math.max(this.maxTurns, turns);
+	}
+
+	/**
+	 * Adds all games of another result
+	 * 
+	 * @param other
+	 *            The result to add
+	 */
+	public void merge(SimulationResult other) {
+		this.games += other.games;
+		this.winsA += other.winsA;
+		this.winsB += other.winsB;
+		this.unfinished += other.unfinished;
+		this.turns += other.turns;
+		this.minTurns = Math.min(this.minTurns, other.minTurns);
+		this.maxTurns = Math.max(this.maxTurns, other.maxTurns);
+	}
+
+	public int getGames() {
+		return games;
+	}
+
+	public int getWinsA() {
+		return winsA;
+	}
+
+	public int getWinsB() {
+		return winsB;
+	}
+
+	public int getUnfinished() {
+		return unfinished;
+	}
+
+	public long getTurns() {
+		return turns;
+	}
+
+	public int getMinTurns() {
+		return games == 0 ? 0 : minTurns;
+	}
+
+	public int getMaxTurns() {
+		return maxTurns;
+	}
+
+	public long getNanos() {
+		return nanos;
+	}
+
+	public void setNanos(long nanos) {
+		this.nanos = nanos;
+	}
+
+	/**
+	 * Returns the share of games won by player A
+	 * 
+	 * @return Wins of player A divided by all games
+	 */
+	public double getWinRateA() {
+		return games == 0 ? 0 : (double) winsA / games;
+	}
+
+	/**
+	 * Returns the share of games won by player B
+	 * 
+	 * @return Wins of player B divided by all games
+	 */
+	public double getWinRateB() {
+		return games == 0 ? 0 : (double) winsB / games;
+	}
+
+	/**
+	 * Returns the average length of a game
+	 * 
+	 * @return Turns per game
+	 */
+	public double getAverageTurns() {
+		return games == 0 ? 0 : (double) turns / games;
+	}
+
+	/**
+	 * Returns the throughput of the simulation
+	 * 
+	 * @return Games per second of wall clock time
+	 */
+	public double getGamesPerSecond() {
+		return nanos == 0 ? 0 : games * 1e9 / nanos;
+	}
+
+	@Override
+	public String toString() {
+		return String.format(
+				"Games: %d (%.1f games/s)%nWins A: %d (%.1f%%)%nWins B: %d (%.1f%%)%nUnfinished: %d%nTurns: %.1f average, %d min, %d max",
+				games, getGamesPerSecond(), winsA, 100 * getWinRateA(), winsB, 100 * getWinRateB(), unfinished,
+				getAverageTurns(), getMinTurns(), maxTurns);
+	}
+}
@@ -47,6 +47,7 @@ import javax.xml.bind.annotation.XmlType;
  *                       &lt;enumeration value="Greedy"/>
  *                       &lt;enumeration value="Defensive"/>
  *                       &lt;enumeration value="Random"/>
+ *                       &lt;enumeration value="Monte Carlo"/>
  *                     &lt;/restriction>
  *                   &lt;/simpleType>
  *                 &lt;/attribute>
@@ -177,6 +178,7 @@ public class Statistics {
      *             &lt;enumeration value="Greedy"/>
      *             &lt;enumeration value="Defensive"/>
      *             &lt;enumeration value="Random"/>
+     *             &lt;enumeration value="Monte Carlo"/>
      *           &lt;/restriction>
      *         &lt;/simpleType>
      *       &lt;/attribute>
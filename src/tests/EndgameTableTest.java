@@ -0,0 +1,59 @@
+package tests;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import computerplayer.EndgameTable;
+import computerplayer.MinMax;
+import gamelogic.Game;
+import gamelogic.GameBoard;
+import gamelogic.Player;
+import gamelogic.Position;
+
+public class EndgameTableTest {
+
+	private static EndgameTable table;
+	// The first row eats a seed with column 5, column 0 lets the second row
+	// eat one
+	private int[][] endgameBoard = { { 1, 0, 0, 0, 0, 1 }, { 1, 0, 0, 0, 0, 1 } };
+
+	@BeforeClass
+	public static void setup() {
+		table = EndgameTable.generate(6);
+	}
+
+	@Test
+	public void testProbe() {
+		Position position = new Position(endgameBoard, 0);
+		assertTrue(table.getMaxSeeds() == 6);
+		assertTrue(table.probe(position) == 1);
+		assertTrue(table.probe(position.play(0)) == 1);
+		assertTrue(table.probe(position.play(5)) == 0);
+		assertTrue(table.probe(Position.INITIAL) == EndgameTable.UNKNOWN);
+	}
+
+	@Test
+	public void testWriteAndOpen() throws IOException {
+		File file = File.createTempFile("endgame", ".tb");
+		file.deleteOnExit();
+		table.write(file);
+		EndgameTable mapped = EndgameTable.open(file);
+		assertTrue(mapped.getMaxSeeds() == table.getMaxSeeds());
+		Position position = new Position(endgameBoard, 1);
+		assertTrue(mapped.probe(position) == table.probe(position));
+		assertTrue(mapped.probe(position.pass()) == table.probe(position.pass()));
+	}
+
+	@Test
+	public void testMinMax() {
+		Game game = new Game(new GameBoard(endgameBoard), new Player("A"), new Player("B"));
+		MinMax minMax = new MinMax();
+		minMax.setEndgameTable(table);
+		assertTrue(minMax.calculateTurn(game) == 5);
+	}
+}
@@ -6,12 +6,15 @@ import org.junit.Before;
 import org.junit.Test;
 
 import gamelogic.GameBoard;
+import gamelogic.Position;
+import gamelogic.Zobrist;
 
 public class GameBoardTest {
 
 	private GameBoard gameBoard;
 
 	private int[][] emptyRowBoard = { { 0, 0, 0, 0, 0, 0 }, { 1, 2, 3, 4, 5, 6 } };
+	private int[][] captureBoard = { { 0, 0, 0, 0, 3, 0 }, { 1, 0, 0, 2, 1, 1 } };
 
 	@Before
 	public void setup() {
@@ -32,6 +35,28 @@ public class GameBoardTest {
 		assertTrue(gameBoard.getPitSeeds(0, 1) == GameBoard.INITIALSEEDS);
 	}
 
+	@Test
+	public void testHash() {
+		long hash = gameBoard.getHash();
+		gameBoard.saveBoard();
+		gameBoard.playPit(0, 3);
+		gameBoard.playPit(1, 1);
+		Position position = gameBoard.getPosition(0);
+		assertTrue(gameBoard.getHash() == Zobrist.pits(position.getFirst(), position.getSecond()));
+		assertTrue(gameBoard.getHash() != hash);
+		gameBoard.undoBoard();
+		assertTrue(gameBoard.getHash() == hash);
+	}
+
+	@Test
+	public void testCaptures() {
+		gameBoard = new GameBoard(captureBoard);
+		int captures = gameBoard.getCaptures(0, 4);
+		assertTrue(gameBoard.getPitSeeds(1, 5) == 1);
+		assertTrue(captures == gameBoard.playPit(0, 4));
+		assertTrue(captures == 4);
+	}
+
 	@Test
 	public void testTotalSeeds() {
 		assertTrue(gameBoard.getTotalSeeds() == GameBoard.TOTALSEEDS);
@@ -16,6 +16,8 @@ public class GameTests {
 
 	private int[][] emptyRowBoard = { { 0, 0, 0, 0, 0, 0 }, { 1, 2, 3, 4, 5, 6 } };
 	private int[][] endBoard = { { 0, 0, 0, 0, 0, 1 }, { 1, 0, 0, 0, 0, 0 } };
+	private int[][] captureBoard = { { 0, 0, 0, 0, 3, 0 }, { 1, 0, 0, 2, 1, 1 } };
+	private int[][] lastSeedsBoard = { { 0, 0, 0, 0, 0, 2 }, { 0, 0, 0, 0, 1, 1 } };
 
 	@Before
 	public void setup() {
@@ -37,6 +39,24 @@ public class GameTests {
 		assertTrue("Turn was undone!", game.getTurn() == turn);
 	}
 
+	@Test
+	public void testUndoScore() {
+		game = new Game(new GameBoard(captureBoard), new Player("A"), new Player("B"));
+		assertTrue(game.playTurn(4) == 2);
+		assertTrue(game.getOpposingPlayer().getScore() == 2);
+		game.undoTurn();
+		assertTrue(game.getCurrentPlayer().getScore() == 0);
+		assertTrue(game.getGameBoard().getPitSeeds(0, 4) == 3);
+	}
+
+	@Test
+	public void testEmptyBoardEnds() {
+		game = new Game(new GameBoard(lastSeedsBoard), new Player("A"), new Player("B"));
+		assertTrue(game.playTurn(5) == 2);
+		assertTrue(game.getGameBoard().getTotalSeeds() == 0);
+		assertTrue(game.hasEnded());
+	}
+
 	@Test
 	public void testPlayerChange() {
 		assertTrue(game.getCurrentPlayer().getName().equals("A"));
@@ -53,6 +73,28 @@ public class GameTests {
 		assertFalse(game.validatePlayable());
 	}
 
+	@Test
+	public void testLegalMoves() {
+		assertTrue(game.legalMoves() == 0x3F);
+		game = new Game(new GameBoard(captureBoard), new Player("A"), new Player("B"));
+		assertTrue(game.legalMoves() == 1 << 4);
+		game = new Game(new GameBoard(emptyRowBoard), new Player("A"), new Player("B"));
+		assertTrue(game.legalMoves() == 0);
+		assertTrue(game.getTurn() == 0);
+	}
+
+	@Test
+	public void testPassTurn() {
+		assertFalse(game.passTurn());
+		game = new Game(new GameBoard(emptyRowBoard), new Player("A"), new Player("B"));
+		assertTrue(game.passTurn());
+		assertTrue(game.getTurn() == 1);
+		assertTrue(game.legalMoves() == 0x3F);
+		game.undoTurn();
+		assertTrue(game.getTurn() == 0);
+		assertTrue(game.getGameBoard().getPitSeeds(1, 5) == 6);
+	}
+
 	@Test
 	public void testEnd() {
 		game = new Game(new GameBoard(endBoard), new Player("A"), new Player("B"));
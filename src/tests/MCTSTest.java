@@ -0,0 +1,124 @@
+package tests;
+
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import computerplayer.MCTS;
+import gamelogic.Game;
+import gamelogic.GameBoard;
+import gamelogic.Player;
+import userinterface.PlayerMode;
+
+public class MCTSTest {
+
+	private static final int ITERATIONS = 20000;
+
+	private Game game;
+	private MCTS monteCarlo;
+
+	private int[][] middleBoard = { { 1, 0, 4, 5, 1, 0 }, { 2, 0, 5, 6, 0, 0 } };
+	// Only the capture of the last column wins, the other columns lose
+	private int[][] captureBoard = { { 1, 0, 0, 1, 0, 1 }, { 0, 1, 2, 0, 1, 1 } };
+	private int[][] passBoard = { { 0, 0, 0, 0, 0, 0 }, { 1, 2, 0, 0, 1, 2 } };
+
+	@Before
+	public void setup() {
+		game = new Game(new GameBoard(), new Player("A"), new Player("B"));
+		monteCarlo = new MCTS();
+		monteCarlo.setIterations(ITERATIONS);
+	}
+
+	@Test
+	public void testForcedCapture() {
+		game = new Game(new GameBoard(captureBoard), new Player("A"), new Player("B"));
+		assertTrue(game.getGameBoard().getCaptures(0, 5) > 0);
+		assertTrue(monteCarlo.calculateTurn(game) == 5);
+	}
+
+	@Test
+	public void testLegalTurns() {
+		monteCarlo.setIterations(1000);
+		for (int i = 0; i < 20 && !game.hasEnded(); i++) {
+			if (!game.validatePlayable()) {
+				continue;
+			}
+			int turn = monteCarlo.calculateTurn(game);
+			assertTrue((game.legalMoves() >>> turn & 1) != 0);
+			game.playTurn(turn);
+		}
+	}
+
+	@Test
+	public void testPass() {
+		game = new Game(new GameBoard(passBoard), new Player("A"), new Player("B"));
+		// The first row has no seeds and passes
+		assertTrue(!game.validatePlayable());
+		int turn = monteCarlo.calculateTurn(game);
+		assertTrue(game.getTurn() == 1);
+		assertTrue((game.legalMoves() >>> turn & 1) != 0);
+	}
+
+	@Test
+	public void testReuseTree() {
+		game = new Game(new GameBoard(middleBoard), new Player("A"), new Player("B"));
+		monteCarlo.calculateTurn(game);
+		assertTrue(monteCarlo.getStatistics().getNodes() == ITERATIONS);
+
+		// The position after the turn is a child of the old root, the
+		// playouts through it count for the next turn
+		game.playTurn(monteCarlo.calculateTurn(game));
+		int turn = monteCarlo.calculateTurn(game);
+		assertTrue(monteCarlo.getStatistics().getNodes() < ITERATIONS);
+		assertTrue((game.legalMoves() >>> turn & 1) != 0);
+
+		// After the turn of the opponent the root is a grandchild
+		game.playTurn(turn);
+		game.playTurn(Integer.numberOfTrailingZeros(game.legalMoves()));
+		turn = monteCarlo.calculateTurn(game);
+		assertTrue(monteCarlo.getStatistics().getNodes() < ITERATIONS);
+		assertTrue((game.legalMoves() >>> turn & 1) != 0);
+
+		// The same pits with another score are a different state
+		monteCarlo.calculateTurn(game);
+		game.playTurn(Integer.numberOfTrailingZeros(game.legalMoves()));
+		Game other = new Game(game);
+		other.getCurrentPlayer().increaseScore(1);
+		monteCarlo.calculateTurn(other);
+		assertTrue(monteCarlo.getStatistics().getNodes() == ITERATIONS);
+	}
+
+	@Test
+	public void testThreads() {
+		monteCarlo.setThreads(4);
+		int turn = monteCarlo.calculateTurn(game);
+		assertTrue((game.legalMoves() >>> turn & 1) != 0);
+		// Every iteration is run by exactly one thread
+		assertTrue(monteCarlo.getStatistics().getNodes() == ITERATIONS);
+	}
+
+	@Test
+	public void testCancelledTurn() {
+		monteCarlo.setIterations(0);
+		monteCarlo.setTimeLimit(60000);
+		long start = System.currentTimeMillis();
+		int turn = monteCarlo.calculateTurn(game, () -> true);
+		assertTrue(System.currentTimeMillis() - start < 1000);
+		assertTrue((game.legalMoves() >>> turn & 1) != 0);
+	}
+
+	@Test
+	public void testPonderLimit() {
+		// Pondering that is never stopped ends at the size limit of the tree
+		monteCarlo.ponder(game, () -> false);
+		assertTrue(monteCarlo.getStatistics().getNodes() > 0);
+		assertTrue(monteCarlo.getStatistics().getNodes() <= 500000);
+	}
+
+	@Test
+	public void testPlayerMode() {
+		assertTrue(PlayerMode.MCTS.toString().equals("Monte Carlo"));
+		assertTrue(PlayerMode.valueOf("MCTS") == PlayerMode.MCTS);
+	}
+}
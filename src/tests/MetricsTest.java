@@ -0,0 +1,70 @@
+package tests;
+
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Test;
+
+import monitoring.Histogram;
+import monitoring.Meter;
+import monitoring.Metrics;
+
+public class MetricsTest {
+
+	@Test
+	public void testPercentiles() {
+		Histogram histogram = new Histogram();
+		for (long value = 1; value <= 1000; value++) {
+			histogram.record(value * 1000);
+		}
+		assertTrue(histogram.getCount() == 1000);
+		assertTrue(histogram.getMax() == 1000000);
+		assertTrue(histogram.getMean() == 500500);
+		// A percentile is at most 1/16 above the real value
+		long median = histogram.getPercentile(0.5);
+		assertTrue(median >= 500000 && median <= 500000 * 17 / 16);
+		long high = histogram.getPercentile(0.99);
+		assertTrue(high >= 990000 && high <= 990000 * 17 / 16);
+		assertTrue(histogram.getPercentile(1) == 1000000);
+
+		histogram.reset();
+		assertTrue(histogram.getCount() == 0);
+		assertTrue(histogram.getPercentile(0.5) == 0);
+	}
+
+	@Test
+	public void testSmallValues() {
+		Histogram histogram = new Histogram();
+		histogram.record(3);
+		histogram.record(-1);
+		assertTrue(histogram.getPercentile(0.5) == 0);
+		assertTrue(histogram.getPercentile(1) == 3);
+	}
+
+	@Test
+	public void testMeter() {
+		Meter meter = new Meter();
+		meter.mark();
+		meter.mark(59);
+		assertTrue(meter.getCount() == 60);
+		assertTrue(meter.getRate() == 1);
+	}
+
+	@Test
+	public void testRegistration() throws Exception {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		long started = Metrics.getGameMetrics().getGamesStarted();
+		Metrics.gameStarted();
+		Object games = server.getAttribute(new ObjectName("uril:type=GameMetrics"), "GamesStarted");
+		assertTrue(games.equals(started + 1));
+
+		Metrics.computerTurn("Test", 2000000, 1000);
+		ObjectName player = new ObjectName("uril:type=PlayerMetrics,name=Test");
+		assertTrue(server.getAttribute(player, "Turns").equals(1L));
+		assertTrue(Metrics.getPlayerMetrics("Test").getNodesPerSecond() == 500000);
+	}
+}
@@ -0,0 +1,280 @@
+package tests;
+
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import computerplayer.MinMax;
+import computerplayer.SearchStatistics;
+import computerplayer.TranspositionTable;
+import gamelogic.Game;
+import gamelogic.GameBoard;
+import gamelogic.Player;
+import gamelogic.Position;
+
+public class MinMaxTest {
+
+	private Game game;
+
+	private int[][] middleBoard = { { 1, 0, 4, 5, 1, 0 }, { 2, 0, 5, 6, 0, 0 } };
+
+	@Before
+	public void setup() {
+		game = new Game(new GameBoard(), new Player("A"), new Player("B"));
+	}
+
+	@Test
+	public void testPrincipalVariation() {
+		MinMax minMax = new MinMax();
+		minMax.setDepth(6);
+		int turn = minMax.calculateTurn(game);
+		int[] variation = minMax.getPrincipalVariation();
+		assertTrue(variation.length > 0);
+		assertTrue(variation[0] == turn);
+		// All columns of the variation can be played one after another
+		for (int column : variation) {
+			assertTrue((game.legalMoves() >>> column & 1) != 0);
+			game.playTurn(column);
+			game.passTurn();
+		}
+	}
+
+	@Test
+	public void testSameTurnWithTable() {
+		game = new Game(new GameBoard(middleBoard), new Player("A"), new Player("B"));
+		MinMax minMax = new MinMax();
+		minMax.setDepth(8);
+		int turn = minMax.calculateTurn(game);
+		minMax.setTranspositionTable(new TranspositionTable(1));
+		assertTrue(minMax.calculateTurn(game) == turn);
+	}
+
+	@Test
+	public void testStatistics() {
+		MinMax minMax = new MinMax();
+		minMax.setDepth(6);
+		minMax.setTranspositionTable(new TranspositionTable(1));
+		minMax.calculateTurn(game);
+		SearchStatistics turn = minMax.getStatistics();
+		assertTrue(turn.getTurns() == 1);
+		assertTrue(turn.getDepth() == 7);
+		assertTrue(turn.getNodes() > 0);
+		assertTrue(turn.getTotalCutoffs() > 0);
+		assertTrue(turn.getTableHits() <= turn.getTableProbes());
+		assertTrue(turn.getEffectiveBranchingFactor() > 1);
+
+		SearchStatistics session = new SearchStatistics();
+		session.add(turn);
+		session.add(turn);
+		assertTrue(session.getTurns() == 2);
+		assertTrue(session.getNodes() == 2 * turn.getNodes());
+		assertTrue(session.getAverageDepth() == 7);
+	}
+
+	@Test
+	public void testCancelledTurn() {
+		MinMax minMax = new MinMax();
+		minMax.setDepth(30);
+		Position position = game.getPosition();
+		// Returns right away instead of searching with depth 30
+		minMax.calculateTurn(game, () -> true);
+		assertTrue(game.getPosition().equals(position));
+		assertTrue(game.getTurn() == 0);
+	}
+
+	@Test
+	public void testTimeLimit() {
+		game = new Game(new GameBoard(middleBoard), new Player("A"), new Player("B"));
+		MinMax minMax = new MinMax();
+		minMax.setTimeLimit(1);
+		// Depth 1 is never aborted, the deadline passes in one of the next
+		// iterations
+		int turn = minMax.calculateTurn(game);
+		assertTrue((game.legalMoves() >>> turn & 1) != 0);
+		assertTrue(minMax.getStatistics().getDepth() >= 2);
+		assertTrue(minMax.getPrincipalVariation()[0] == turn);
+	}
+
+	@Test
+	public void testCompletedDepth() {
+		game = new Game(new GameBoard(middleBoard), new Player("A"), new Player("B"));
+		MinMax minMax = new MinMax();
+		minMax.setTimeLimit(60000);
+		// Stops at the first check of an iteration after depth 1
+		int turn = minMax.calculateTurn(game, () -> true);
+		int depth = minMax.getStatistics().getDepth();
+		assertTrue(depth >= 2);
+		// The value and the depth are those of the last finished iteration,
+		// the turn can differ among columns of the same value
+		MinMax fixed = new MinMax();
+		fixed.setDepth(depth - 1);
+		fixed.calculateTurn(game);
+		assertTrue(fixed.getValue() == minMax.getValue());
+		assertTrue(fixed.getStatistics().getDepth() == depth);
+		assertTrue(minMax.getPrincipalVariation()[0] == turn);
+		assertTrue(minMax.getPrincipalVariation().length <= depth);
+	}
+
+	@Test
+	public void testFixedDepth() {
+		// Turns of the search before iterative deepening was added
+		int[][][] boards = { { { 4, 4, 4, 4, 4, 4 }, { 4, 4, 4, 4, 4, 4 } }, middleBoard,
+				{ { 0, 3, 7, 1, 0, 2 }, { 5, 1, 0, 3, 2, 4 } }, { { 6, 1, 0, 2, 9, 3 }, { 1, 4, 2, 0, 3, 1 } },
+				{ { 2, 2, 1, 0, 3, 0 }, { 0, 1, 3, 1, 0, 2 } } };
+		int[][] turns = { { 0, 0, 5 }, { 2, 4, 4 }, { 1, 1, 3 }, { 4, 0, 4 }, { 0, 0, 0 } };
+		int[] depths = { 4, 7, 9 };
+		for (int i = 0; i < boards.length; i++) {
+			for (int j = 0; j < depths.length; j++) {
+				game = new Game(new GameBoard(boards[i]), new Player("A"), new Player("B"));
+				MinMax minMax = new MinMax();
+				minMax.setDepth(depths[j]);
+				assertTrue(minMax.calculateTurn(game) == turns[i][j]);
+			}
+		}
+	}
+
+	@Test
+	public void testParallel() {
+		int[][][] boards = { { { 4, 4, 4, 4, 4, 4 }, { 4, 4, 4, 4, 4, 4 } }, middleBoard,
+				{ { 0, 3, 7, 1, 0, 2 }, { 5, 1, 0, 3, 2, 4 } }, { { 2, 2, 1, 0, 3, 0 }, { 0, 1, 3, 1, 0, 2 } } };
+		for (int[][] board : boards) {
+			game = new Game(new GameBoard(board), new Player("A"), new Player("B"));
+			MinMax sequential = new MinMax();
+			sequential.setDepth(8);
+			MinMax parallel = new MinMax();
+			parallel.setDepth(8);
+			parallel.setParallel(true);
+			assertTrue(parallel.calculateTurn(game) == sequential.calculateTurn(game));
+			assertTrue(parallel.getValue() == sequential.getValue());
+			// The copies of the searching threads leave the game as it was
+			assertTrue(game.getPosition().equals(new Position(board, 0)));
+		}
+	}
+
+	@Test
+	public void testMoveOrdering() {
+		int[][][] boards = { { { 4, 4, 4, 4, 4, 4 }, { 4, 4, 4, 4, 4, 4 } }, middleBoard,
+				{ { 0, 3, 7, 1, 0, 2 }, { 5, 1, 0, 3, 2, 4 } }, { { 6, 1, 0, 2, 9, 3 }, { 1, 4, 2, 0, 3, 1 } },
+				{ { 2, 2, 1, 0, 3, 0 }, { 0, 1, 3, 1, 0, 2 } } };
+		for (int[][] board : boards) {
+			game = new Game(new GameBoard(board), new Player("A"), new Player("B"));
+			// The first column with the highest value of a search without
+			// pruning in the order of the columns, the root column is one
+			// more ply than the depth
+			int maxValue = Integer.MIN_VALUE;
+			int maxTurn = -1;
+			for (int i = 0; i < GameBoard.WIDTH; i++) {
+				if ((game.legalMoves() >>> i & 1) != 0) {
+					int value = this.plainColumn(i, 7);
+					if (value > maxValue) {
+						maxValue = value;
+						maxTurn = i;
+					}
+				}
+			}
+			MinMax minMax = new MinMax();
+			minMax.setDepth(6);
+			assertTrue(minMax.calculateTurn(game) == maxTurn);
+			assertTrue(minMax.getValue() == maxValue);
+			minMax.setTranspositionTable(new TranspositionTable(1));
+			assertTrue(minMax.calculateTurn(game) == maxTurn);
+			assertTrue(minMax.getValue() == maxValue);
+		}
+	}
+
+	/**
+	 * Searches a column without pruning, a pass does not use up depth
+	 */
+	private int plainColumn(int column, int depth) {
+		Player max = game.getCurrentPlayer();
+		Player min = game.getOpposingPlayer();
+		game.playTurn(column);
+		int value;
+		if (game.hasEnded()) {
+			value = game.getWinner() == max ? 24 : -24;
+		} else if (depth - 1 <= 0) {
+			value = max.getScore() - min.getScore();
+		} else if (game.legalMoves() != 0) {
+			value = -this.plain(depth - 1);
+		} else {
+			game.passTurn();
+			value = this.plain(depth - 1);
+			game.undoTurn();
+		}
+		game.undoTurn();
+		return value;
+	}
+
+	private int plain(int depth) {
+		int maxValue = Integer.MIN_VALUE;
+		for (int i = 0; i < GameBoard.WIDTH; i++) {
+			if ((game.legalMoves() >>> i & 1) != 0) {
+				maxValue = Math.max(maxValue, this.plainColumn(i, depth));
+			}
+		}
+		return maxValue;
+	}
+
+	@Test
+	public void testMirrorNearTie() {
+		int[][][] boards = { { { 0, 0, 1, 1, 0, 0 }, { 0, 0, 1, 1, 1, 3 } },
+				{ { 0, 1, 0, 1, 2, 2 }, { 1, 1, 0, 0, 0, 0 } } };
+		int[] columns = { 2, 1 };
+		for (int i = 0; i < boards.length; i++) {
+			// The game can end with 12 points each, then the second row wins
+			game = new Game(new GameBoard(boards[i]), new Player("A"), new Player("B"));
+			game.getCurrentPlayer().increaseScore(10);
+			game.getOpposingPlayer().increaseScore(10);
+			game.playTurn(columns[i]);
+			// The mirror image has the first row to move
+			int[][] mirror = new int[GameBoard.HEIGHT][GameBoard.WIDTH];
+			for (int j = 0; j < GameBoard.WIDTH; j++) {
+				mirror[0][j] = game.getGameBoard().getPitSeeds(1, GameBoard.WIDTH - 1 - j);
+				mirror[1][j] = game.getGameBoard().getPitSeeds(0, GameBoard.WIDTH - 1 - j);
+			}
+			Game mirrored = new Game(new GameBoard(mirror), new Player("C"), new Player("D"));
+			mirrored.getCurrentPlayer().increaseScore(game.getCurrentPlayer().getScore());
+			mirrored.getOpposingPlayer().increaseScore(game.getOpposingPlayer().getScore());
+
+			MinMax minMax = new MinMax();
+			minMax.setDepth(12);
+			minMax.setTranspositionTable(new TranspositionTable(4));
+			int turn = minMax.calculateTurn(game);
+			int value = minMax.getValue();
+			// The entries of the mirror image do not change the result
+			MinMax shared = new MinMax();
+			shared.setDepth(12);
+			shared.setTranspositionTable(new TranspositionTable(4));
+			shared.calculateTurn(mirrored);
+			assertTrue(shared.calculateTurn(game) == turn);
+			assertTrue(shared.getValue() == value);
+		}
+	}
+
+	@Test
+	public void testPonder() {
+		game = new Game(new GameBoard(middleBoard), new Player("A"), new Player("B"));
+		MinMax minMax = new MinMax();
+		minMax.setDepth(8);
+		minMax.setTranspositionTable(new TranspositionTable(1));
+		minMax.ponder(new Game(game), () -> false);
+		game.playTurn(2);
+		int turn = minMax.calculateTurn(game);
+		MinMax cold = new MinMax();
+		cold.setDepth(8);
+		assertTrue(cold.calculateTurn(game) == turn);
+	}
+
+	@Test
+	public void testStoppedPonder() {
+		MinMax minMax = new MinMax();
+		minMax.setDepth(30);
+		minMax.setTranspositionTable(new TranspositionTable(1));
+		Position position = game.getPosition();
+		// Returns right away instead of searching all turns with depth 30
+		minMax.ponder(game, () -> true);
+		assertTrue(game.getPosition().equals(position));
+		assertTrue(game.getTurn() == 0);
+	}
+}
@@ -0,0 +1,69 @@
+package tests;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import computerplayer.MinMax;
+import computerplayer.OpeningBook;
+import gamelogic.Game;
+import gamelogic.GameBoard;
+import gamelogic.Player;
+
+public class OpeningBookTest {
+
+	private static final int DEPTH = 6;
+	private static OpeningBook book;
+
+	@BeforeClass
+	public static void setup() {
+		book = OpeningBook.generate(2, DEPTH);
+	}
+
+	@Test
+	public void testProbe() {
+		Game game = new Game(new GameBoard(), new Player("A"), new Player("B"));
+		MinMax minMax = new MinMax();
+		minMax.setDepth(DEPTH);
+		assertTrue(book.getDepth() == DEPTH);
+		assertTrue(book.probe(game) == minMax.calculateTurn(game));
+		// The answers of the second row are in the book as well
+		game.playTurn(3);
+		assertTrue(book.probe(game) == minMax.calculateTurn(game));
+		game.playTurn(book.probe(game));
+		assertTrue(book.probe(game) == OpeningBook.UNKNOWN);
+	}
+
+	@Test
+	public void testWriteAndOpen() throws IOException {
+		File file = File.createTempFile("opening", ".book");
+		file.deleteOnExit();
+		book.write(file);
+		OpeningBook mapped = OpeningBook.open(file);
+		assertTrue(mapped.getDepth() == book.getDepth());
+		Game game = new Game(new GameBoard(), new Player("A"), new Player("B"));
+		for (int column = 0; column < GameBoard.WIDTH; column++) {
+			game.playTurn(column);
+			assertTrue(mapped.probe(game) == book.probe(game));
+			game.undoTurn();
+		}
+	}
+
+	@Test
+	public void testMinMax() {
+		Game game = new Game(new GameBoard(), new Player("A"), new Player("B"));
+		MinMax minMax = new MinMax();
+		minMax.setDepth(DEPTH);
+		minMax.setOpeningBook(book);
+		assertTrue(minMax.calculateTurn(game) == book.probe(game));
+		assertTrue(minMax.getStatistics().getNodes() == 0);
+		// A deeper search does not trust the book
+		minMax.setDepth(DEPTH + 1);
+		minMax.calculateTurn(game);
+		assertTrue(minMax.getStatistics().getNodes() > 0);
+	}
+}
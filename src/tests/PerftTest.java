@@ -0,0 +1,52 @@
+package tests;
+
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import benchmarks.Perft;
+import gamelogic.Game;
+import gamelogic.GameBoard;
+import gamelogic.Player;
+import gamelogic.Position;
+
+public class PerftTest {
+
+	private static final long[] INITIAL = { 1, 6, 36, 190, 1014, 5102, 26094 };
+
+	private int[][] passBoard = { { 0, 0, 0, 0, 0, 0 }, { 1, 2, 0, 0, 1, 2 } };
+
+	@Test
+	public void testInitial() {
+		Perft perft = new Perft();
+		Game game = new Game(new GameBoard(), new Player("A"), new Player("B"));
+		for (int depth = 0; depth < INITIAL.length; depth++) {
+			assertTrue(perft.perft(Position.INITIAL, depth) == INITIAL[depth]);
+			assertTrue(Perft.perft(game, depth) == INITIAL[depth]);
+		}
+	}
+
+	@Test
+	public void testPass() {
+		Perft perft = new Perft();
+		Game game = new Game(new GameBoard(passBoard), new Player("A"), new Player("B"));
+		for (int depth = 1; depth <= 6; depth++) {
+			assertTrue(perft.perft(new Position(passBoard, 0), depth) == Perft.perft(game, depth));
+		}
+		assertTrue(game.getTurn() == 0);
+	}
+
+	@Test
+	public void testThreadsAndHash() {
+		Perft perft = new Perft();
+		perft.setThreads(2);
+		perft.setHashMegabytes(1);
+		assertTrue(perft.perft(Position.INITIAL, 7) == 126797);
+		long[] counts = perft.divide(Position.INITIAL, 3);
+		long sum = 0;
+		for (long count : counts) {
+			sum += count;
+		}
+		assertTrue(sum == INITIAL[3]);
+	}
+}
@@ -0,0 +1,96 @@
+package tests;
+
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import gamelogic.GameBoard;
+import gamelogic.Position;
+import gamelogic.Zobrist;
+
+public class PositionTest {
+
+	private Position position;
+
+	private int[][] captureBoard = { { 0, 0, 0, 0, 3, 0 }, { 1, 0, 0, 2, 1, 1 } };
+	private int[][] lapBoard = { { 13, 0, 0, 0, 0, 0 }, { 1, 0, 0, 0, 0, 0 } };
+
+	@Before
+	public void setup() {
+		position = Position.INITIAL;
+	}
+
+	@Test
+	public void testPlayColumn() {
+		position = position.play(2);
+		assertTrue(position.getPitSeeds(1, 5) == GameBoard.INITIALSEEDS + 1);
+		assertTrue(position.getPitSeeds(0, 2) == 0);
+		assertTrue(position.getSideToMove() == 1);
+	}
+
+	@Test
+	public void testCapture() {
+		position = new Position(captureBoard, 0).play(4);
+		assertTrue(position.getPitSeeds(1, 5) == 0);
+		assertTrue(position.getPitSeeds(1, 4) == 0);
+		assertTrue(position.getPitSeeds(1, 3) == 2);
+		assertTrue(position.getTotalSeeds() == 4);
+	}
+
+	@Test
+	public void testLap() {
+		position = new Position(lapBoard, 0).play(0);
+		assertTrue(position.getPitSeeds(0, 0) == 1);
+		assertTrue(position.getPitSeeds(0, 1) == 2);
+		// The single seed is eaten, the other pits of the second row were
+		// empty and keep the seed of the lap
+		assertTrue(position.getPitSeeds(1, 0) == 0);
+		assertTrue(position.getPitSeeds(1, 1) == 1);
+		assertTrue(position.getTotalSeeds() == 12);
+	}
+
+	@Test
+	public void testSameAsGameBoard() {
+		GameBoard gameBoard = new GameBoard();
+		for (int column = 0; column < GameBoard.WIDTH; column++) {
+			int row = position.getSideToMove();
+			if (position.getPitSeeds(row, column) > 0) {
+				gameBoard.playPit(row, column);
+				position = position.sow(row, column);
+				assertTrue(gameBoard.getPosition(position.getSideToMove()).equals(position));
+			}
+		}
+	}
+
+	@Test
+	public void testMirror() {
+		position = new Position(captureBoard, 0);
+		Position mirror = position.mirror();
+		assertTrue(mirror.getSideToMove() == 1);
+		assertTrue(mirror.getPitSeeds(1, 1) == 3);
+		assertTrue(mirror.getPitSeeds(0, 0) == 1);
+		assertTrue(mirror.mirror().equals(position));
+		assertTrue(mirror.canonical().equals(position));
+		// Column c of one row is column 5 - c of the other row
+		assertTrue(position.play(4).mirror().equals(mirror.play(1)));
+		assertTrue(Zobrist.canonical(mirror) == Zobrist.canonical(position));
+		assertTrue(Zobrist.canonical(position.pass()) != Zobrist.canonical(position));
+	}
+
+	@Test
+	public void testLegalMoves() {
+		assertTrue(position.legalMoves() == 0x3F);
+		position = new Position(captureBoard, 1);
+		assertTrue(position.legalMoves() == 0x39);
+		assertTrue(position.pass().legalMoves() == 0x10);
+	}
+
+	@Test
+	public void testTerminal() {
+		assertTrue(!position.isTerminal());
+		position = new Position(new int[][] { { 0, 0, 0, 0, 0, 1 }, { 1, 0, 0, 0, 0, 0 } }, 0);
+		assertTrue(position.isTerminal());
+		assertTrue(position.isEmptyRow(0) == false);
+	}
+}
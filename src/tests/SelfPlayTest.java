@@ -0,0 +1,27 @@
+package tests;
+
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import simulation.SelfPlay;
+import simulation.SimulationResult;
+
+public class SelfPlayTest {
+
+	@Test
+	public void testRun() throws InterruptedException {
+		SelfPlay selfPlay = new SelfPlay(SelfPlay.player("greedy"), SelfPlay.player("random"));
+		selfPlay.setThreads(2);
+		SimulationResult result = selfPlay.run(250);
+		assertTrue(result.getGames() == 250);
+		assertTrue(result.getWinsA() + result.getWinsB() + result.getUnfinished() == 250);
+		assertTrue(result.getMinTurns() > 0 && result.getMaxTurns() >= result.getMinTurns());
+		assertTrue(result.getGamesPerSecond() > 0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownPlayer() {
+		SelfPlay.player("perfect");
+	}
+}
@@ -0,0 +1,107 @@
+package tests;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import computerplayer.EndgameTable;
+import computerplayer.Solver;
+import gamelogic.Position;
+
+public class SolverTest {
+
+	private static EndgameTable table;
+	private int[][] endgameBoard = { { 1, 0, 0, 0, 0, 1 }, { 1, 0, 0, 0, 0, 1 } };
+	private int[][] middleBoard = { { 2, 0, 1, 0, 0, 1 }, { 0, 1, 0, 2, 0, 1 } };
+	// No line of the proof repeats a position
+	private int[][] acyclicBoard = { { 0, 0, 0, 1, 0, 2 }, { 0, 0, 0, 1, 1, 1 } };
+
+	@BeforeClass
+	public static void setup() {
+		table = EndgameTable.generate(6);
+	}
+
+	@Test
+	public void testEndgameTable() throws IOException {
+		Solver solver = new Solver(1);
+		solver.setEndgameTable(table);
+		Position position = new Position(endgameBoard, 0);
+		Solver.Solution solution = solver.solve(position, () -> false);
+		assertTrue(solution.isSolved());
+		assertTrue(solution.getValue() == table.probe(position));
+		assertTrue(solution.getNodes() == 0);
+		assertTrue(this.reaches(position, solution));
+	}
+
+	@Test
+	public void testSolve() throws IOException {
+		// Without the table the endgame is searched
+		try (Solver solver = new Solver(1)) {
+			Position position = new Position(acyclicBoard, 0);
+			Solver.Solution solution = solver.solve(position, () -> false);
+			assertTrue(solution.isSolved());
+			assertTrue(!solution.isPathDependent());
+			assertTrue(solution.getValue() == table.probe(position));
+			assertTrue(solution.getNodes() > 0);
+			assertTrue(this.reaches(position, solution));
+		}
+	}
+
+	@Test
+	public void testRepetition() throws IOException {
+		// The seeds can go around without being eaten, the value found by the
+		// search is only an estimate
+		try (Solver solver = new Solver(1)) {
+			Solver.Solution solution = solver.solve(new Position(endgameBoard, 0), () -> false);
+			assertTrue(solution.getLower() == solution.getUpper());
+			assertTrue(solution.isPathDependent());
+			assertTrue(!solution.isSolved());
+		}
+	}
+
+	@Test
+	public void testStopped() throws IOException {
+		Solver solver = new Solver(1);
+		Solver.Solution solution = solver.solve(new Position(middleBoard, 0), () -> true);
+		assertTrue(!solution.isSolved());
+		assertTrue(solution.getMove() == Solver.ANY);
+	}
+
+	@Test
+	public void testCheckpoint() throws IOException {
+		File file = File.createTempFile("solution", ".bin");
+		file.deleteOnExit();
+		Position position = new Position(middleBoard, 0);
+		Solver solver = new Solver(1);
+		solver.setThreads(2);
+		solver.setEndgameTable(table);
+		solver.setCheckpoint(file, 1000);
+		Solver.Solution solution = solver.solve(position, () -> false);
+		solver.close();
+		assertTrue(solution.getLower() == solution.getUpper());
+
+		// The checkpoint of a finished solve answers without searching
+		try (Solver opened = Solver.open(file)) {
+			opened.setEndgameTable(table);
+			Solver.Solution resumed = opened.solve(position, () -> false);
+			assertTrue(resumed.getValue() == solution.getValue());
+			assertTrue(resumed.getMove() == solution.getMove());
+			assertTrue(resumed.getNodes() == solution.getNodes());
+			assertTrue(resumed.isPathDependent() == solution.isPathDependent());
+		}
+	}
+
+	/**
+	 * Tells if the column of a solution leads to its value according to the
+	 * endgame table
+	 */
+	private boolean reaches(Position position, Solver.Solution solution) {
+		Position child = position.play(solution.getMove());
+		int gain = (position.getTotalSeeds() - child.getTotalSeeds()) / 2;
+		return gain - table.probe(child) == solution.getValue();
+	}
+}
@@ -0,0 +1,58 @@
+package tests;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import computerplayer.TranspositionTable;
+
+public class TranspositionTableTest {
+
+	private TranspositionTable table;
+
+	@Before
+	public void setup() {
+		table = new TranspositionTable(1);
+	}
+
+	@Test
+	public void testSize() {
+		assertTrue(table.getSize() == 1024 * 1024 / TranspositionTable.ENTRY_SIZE);
+	}
+
+	@Test
+	public void testStoreAndProbe() {
+		table.store(42L, 5, TranspositionTable.LOWER, -7, 3);
+		long entry = table.probe(42L);
+		assertTrue(entry != 0);
+		assertTrue(TranspositionTable.getDepth(entry) == 5);
+		assertTrue(TranspositionTable.getBound(entry) == TranspositionTable.LOWER);
+		assertTrue(TranspositionTable.getValue(entry) == -7);
+		assertTrue(TranspositionTable.getMove(entry) == 3);
+		assertTrue(table.probe(43L) == 0);
+		assertTrue(table.getHitRate() == 0.5);
+	}
+
+	@Test
+	public void testPathDependent() {
+		table.store(42L, 5, TranspositionTable.UPPER, 3, 2, true);
+		table.store(43L, 5, TranspositionTable.UPPER, 3, 2);
+		long entry = table.probe(42L);
+		assertTrue(TranspositionTable.isPathDependent(entry));
+		assertTrue(TranspositionTable.getBound(entry) == TranspositionTable.UPPER);
+		assertTrue(TranspositionTable.getValue(entry) == 3);
+		assertTrue(TranspositionTable.getMove(entry) == 2);
+		assertFalse(TranspositionTable.isPathDependent(table.probe(43L)));
+	}
+
+	@Test
+	public void testDeeperEntryIsKept() {
+		table.store(42L, 5, TranspositionTable.EXACT, 1, -1);
+		table.store(42L, 2, TranspositionTable.EXACT, 2, 0);
+		long entry = table.probe(42L);
+		assertTrue(TranspositionTable.getValue(entry) == 1);
+		assertTrue(TranspositionTable.getMove(entry) == -1);
+	}
+}
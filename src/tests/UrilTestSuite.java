@@ -5,7 +5,9 @@ import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
 @RunWith(Suite.class)
-@SuiteClasses({ GameTests.class, GameBoardTest.class })
+@SuiteClasses({ GameTests.class, GameBoardTest.class, PositionTest.class, TranspositionTableTest.class,
+		EndgameTableTest.class, SelfPlayTest.class, PerftTest.class, MinMaxTest.class,
+		MetricsTest.class, OpeningBookTest.class, SolverTest.class, MCTSTest.class })
 public class UrilTestSuite {
 
 }
@@ -1,13 +1,29 @@
 package userinterface;
 
 import java.awt.Point;
+import java.io.File;
+import java.io.IOException;
 import java.math.BigInteger;
 import java.net.URL;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Observable;
 import java.util.Observer;
 import java.util.ResourceBundle;
-
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import computerplayer.EndgameTable;
+import computerplayer.MCTS;
+import computerplayer.OpeningBook;
+import computerplayer.Ponderer;
+import computerplayer.SearchStatistics;
+import computerplayer.Solver;
+import computerplayer.TranspositionTable;
+import computerplayer.TurnCalculator;
 import gamelogic.Game;
 import gamelogic.GameBoard;
 import gamelogic.GameBoardDTO;
@@ -30,6 +46,8 @@ import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.GridPane;
 import javafx.scene.paint.Color;
 import javafx.util.Duration;
+import monitoring.Events;
+import monitoring.Metrics;
 import statistics.Statistics;
 import statistics.StatisticsHelper;
 
@@ -43,6 +61,19 @@ import statistics.StatisticsHelper;
  *
  */
 public class GameController implements Initializable, Observer {
+	// Size of the transposition table of the computer player in megabytes,
+	// can be changed at startup with -Duril.hash=<megabytes>
+	private static final int TABLE_SIZE = Integer.getInteger("uril.hash", 64);
+	// Time the computer player may think on the highest difficulty in
+	// milliseconds
+	private static final long TIME_LIMIT = 1000;
+	// File of the endgame table, created by running EndgameTable
+	private static final String ENDGAME_FILE = "endgame.tb";
+	// File of the opening book, created by running OpeningBook
+	private static final String BOOK_FILE = "opening.book";
+	// Checkpoint of a solve of the game, created by running Solver
+	private static final String SOLUTION_FILE = "solution.bin";
+
 	@FXML
 	private MenuBar menuBar;
 	@FXML
@@ -62,6 +93,10 @@ public class GameController implements Initializable, Observer {
 	@FXML
 	private Label lblTurns;
 	@FXML
+	private Label lblVariation;
+	@FXML
+	private Label lblSearch;
+	@FXML
 	private ComboBox<PlayerMode> cbxPlayerA;
 	@FXML
 	private ComboBox<PlayerMode> cbxPlayerB;
@@ -90,6 +125,10 @@ public class GameController implements Initializable, Observer {
 	private Label lblDefensiveWins;
 	@FXML
 	private Label lblDefensiveLosses;
+	@FXML
+	private Label lblMonteCarloWins;
+	@FXML
+	private Label lblMonteCarloLosses;
 
 	private GameBoard gameBoard;
 	private Player playerA;
@@ -99,8 +138,31 @@ public class GameController implements Initializable, Observer {
 	private boolean playerTurn;
 
 	private Statistics statistics;
+	private TranspositionTable transpositionTable;
+	private EndgameTable endgameTable;
+	private OpeningBook openingBook;
+	private Solver solver;
+	private MCTS monteCarlo;
+	// Statistics of all turns of the computer players since the start
+	private final Map<PlayerMode, SearchStatistics> searchStatistics = new EnumMap<PlayerMode, SearchStatistics>(
+			PlayerMode.class);
 
 	private GameLoop gameLoop;
+	// Pool of the computer player that thinks during the turn of the human
+	// player, its task and the flag that stops it. The parallel searches fork
+	// their tasks into the pool of the thread that runs them, so all threads
+	// of the pondering have the lowest priority and one core is left to the
+	// user interface.
+	private final ForkJoinPool ponderPool = new ForkJoinPool(
+			Math.max(1, Runtime.getRuntime().availableProcessors() - 1), pool -> {
+				ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+				thread.setName("Ponder-" + thread.getPoolIndex());
+				thread.setDaemon(true);
+				thread.setPriority(Thread.MIN_PRIORITY);
+				return thread;
+			}, null, false);
+	private ForkJoinTask<?> ponderTask;
+	private AtomicBoolean ponderStopped;
 	// if true the restarting is not safe and the game is waiting to be
 	// restarted
 	private boolean restarting;
@@ -121,8 +183,185 @@ public class GameController implements Initializable, Observer {
 		return statistics;
 	}
 
+	public TranspositionTable getTranspositionTable() {
+		return transpositionTable;
+	}
+
+	public EndgameTable getEndgameTable() {
+		return endgameTable;
+	}
+
+	public OpeningBook getOpeningBook() {
+		return openingBook;
+	}
+
+	public Solver getSolver() {
+		return solver;
+	}
+
+	public MCTS getMonteCarlo() {
+		return monteCarlo;
+	}
+
 	public GameController(Statistics statistics) {
 		this.statistics = statistics;
+		this.transpositionTable = new TranspositionTable(TABLE_SIZE);
+		this.endgameTable = this.openEndgameTable();
+		this.openingBook = this.openOpeningBook();
+		this.solver = this.openSolver();
+		// The instance is kept so the search tree is reused between turns
+		this.monteCarlo = new MCTS();
+	}
+
+	/**
+	 * Opens the endgame table if the file exists. The file is memory mapped,
+	 * so it is only read while the computer player looks up positions.
+	 * 
+	 * @return The endgame table or null if there is none
+	 */
+	private EndgameTable openEndgameTable() {
+		File file = new File(ENDGAME_FILE);
+		if (file.exists()) {
+			try {
+				return EndgameTable.open(file);
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Opens the opening book if the file exists. Like the endgame table the
+	 * file is memory mapped.
+	 * 
+	 * @return The opening book or null if there is none
+	 */
+	private OpeningBook openOpeningBook() {
+		File file = new File(BOOK_FILE);
+		if (file.exists()) {
+			try {
+				return OpeningBook.open(file);
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Opens the solver from the checkpoint of a solve if the file exists. The
+	 * transposition table of the checkpoint is read into memory, it uses the
+	 * endgame table for the positions with few seeds.
+	 * 
+	 * @return The solver or null if there is none
+	 */
+	private Solver openSolver() {
+		File file = new File(SOLUTION_FILE);
+		if (file.exists()) {
+			try {
+				Solver solver = Solver.open(file);
+				solver.setEndgameTable(this.endgameTable);
+				return solver;
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Shows the turns the computer player expects to be played next
+	 * 
+	 * @param game
+	 *            The game before the first turn of the variation
+	 * @param variation
+	 *            The columns of the principal variation
+	 */
+	public void showVariation(Game game, int[] variation) {
+		Game copy = new Game(game);
+		StringBuilder text = new StringBuilder();
+		for (int column : variation) {
+			text.append(text.length() == 0 ? "Expected: " : " ");
+			text.append(copy.getCurrentPlayer().getName()).append(column + 1);
+			copy.playTurn(column);
+			// A player without seeds passes
+			copy.passTurn();
+		}
+		final String line = text.toString();
+		Platform.runLater(() -> lblVariation.setText(line));
+	}
+
+	/**
+	 * Lets a computer player think about its next turn in the background
+	 * while the human player chooses a turn. A running pondering is stopped
+	 * first.
+	 * 
+	 * @param turnCalculator
+	 *            The computer player that moves after the human player, it is
+	 *            ignored if it can not ponder
+	 */
+	public synchronized void startPondering(TurnCalculator turnCalculator) {
+		this.stopPondering();
+		if (!(turnCalculator instanceof Ponderer)) {
+			return;
+		}
+		Ponderer ponderer = (Ponderer) turnCalculator;
+		// The pondering uses its own copy, so the game can go on
+		Game copy = new Game(game);
+		AtomicBoolean stopped = new AtomicBoolean();
+		this.ponderStopped = stopped;
+		this.ponderTask = this.ponderPool.submit(() -> ponderer.ponder(copy, stopped::get));
+	}
+
+	/**
+	 * Stops the pondering and waits until the computer player has returned,
+	 * so the player can be used for the next turn
+	 */
+	public synchronized void stopPondering() {
+		if (this.ponderTask == null) {
+			return;
+		}
+		this.ponderStopped.set(true);
+		this.ponderTask.quietlyJoin();
+		if (this.ponderTask.isCompletedAbnormally()) {
+			this.ponderTask.getException().printStackTrace();
+		}
+		this.ponderTask = null;
+	}
+
+	/**
+	 * Adds the statistics of a turn of a computer player to the statistics of
+	 * the session and shows them
+	 * 
+	 * @param playerMode
+	 *            The mode of the player who calculated the turn
+	 * @param turn
+	 *            The statistics of the turn
+	 */
+	public synchronized void addSearchStatistics(PlayerMode playerMode, SearchStatistics turn) {
+		this.searchStatistics.computeIfAbsent(playerMode, mode -> new SearchStatistics()).add(turn);
+		Metrics.computerTurn(playerMode.toString(), turn.getNanos(), turn.getNodes());
+		final String text = turn.getNodes() == 0 ? ""
+				: String.format("Depth %d, %d nodes in %.0f ms", turn.getDepth(), turn.getNodes(), turn.getNanos() / 1e6);
+		Platform.runLater(() -> lblSearch.setText(text));
+	}
+
+	/**
+	 * Returns the statistics of all turns a computer player has calculated
+	 * since the start
+	 * 
+	 * @param playerMode
+	 *            The mode of the player
+	 * @return A copy of the statistics, empty if the player has not played
+	 */
+	public synchronized SearchStatistics getSearchStatistics(PlayerMode playerMode) {
+		SearchStatistics copy = new SearchStatistics();
+		SearchStatistics session = this.searchStatistics.get(playerMode);
+		if (session != null) {
+			copy.add(session);
+		}
+		return copy;
 	}
 
 	public boolean isDelayed() {
@@ -146,6 +385,28 @@ public class GameController implements Initializable, Observer {
 		return depth;
 	}
 
+	public int getIterations() {
+		RadioMenuItem tgl = (RadioMenuItem) tglDifficulty.getSelectedToggle();
+		int iterations = 0;
+		switch (Integer.parseInt(tgl.getId())) {
+			case 4:
+				iterations = 1000;
+				break;
+			case 5:
+				iterations = 10000;
+				break;
+		}
+		return iterations;
+	}
+
+	public long getTimeLimit() {
+		RadioMenuItem tgl = (RadioMenuItem) tglDifficulty.getSelectedToggle();
+		if (Integer.parseInt(tgl.getId()) == 6) {
+			return TIME_LIMIT;
+		}
+		return 0;
+	}
+
 	@Override
 	public void initialize(URL location, ResourceBundle resources) {
 		this.gameBoard = new GameBoard();
@@ -156,6 +417,7 @@ public class GameController implements Initializable, Observer {
 		this.playerB.setPlayerMode(PlayerMode.HUMAN);
 
 		this.game = new Game(gameBoard, playerA, playerB);
+		Metrics.gameStarted();
 
 		this.setObservers();
 
@@ -176,6 +438,7 @@ public class GameController implements Initializable, Observer {
 	 * longer in use.
 	 */
 	public void close() {
+		this.stopPondering();
 		if (gameLoop.isAlive()) {
 			gameLoop.cancel();
 		}
@@ -212,6 +475,7 @@ public class GameController implements Initializable, Observer {
 
 		int turn = game.getTurn();
 		if (turn == row && playerTurn) {
+			this.stopPondering();
 			gameLoop = new GameLoop(this);
 			gameLoop.setPlayerTurn(column);
 			playerTurn = false;
@@ -277,6 +541,10 @@ public class GameController implements Initializable, Observer {
 				Platform.runLater(() -> lblDefensiveWins.setText("Wins: " + playerMode.getWins()));
 				Platform.runLater(() -> lblDefensiveLosses.setText("Losses: " + playerMode.getLosses()));
 			}
+			if (playerMode.getName().equals("Monte Carlo")) {
+				Platform.runLater(() -> lblMonteCarloWins.setText("Wins: " + playerMode.getWins()));
+				Platform.runLater(() -> lblMonteCarloLosses.setText("Losses: " + playerMode.getLosses()));
+			}
 		}
 	}
 
@@ -294,6 +562,7 @@ public class GameController implements Initializable, Observer {
 
 				StatisticsHelper.fillStatistics(statistics, turnsPlayed, game.getWinner(), game.getLoser());
 				this.fillInStatistics();
+				Metrics.gameFinished();
 			}
 		}
 	}
@@ -303,8 +572,10 @@ public class GameController implements Initializable, Observer {
 	 */
 	private void restartGame(boolean finished) {
 		if (!gameLoop.isAlive() || finished) {
+			this.stopPondering();
 			playerTurn = false;
 			game.restartGame();
+			Metrics.gameStarted();
 			turnsPlayed = 0;
 			toggleRow(game.getTurn());
 
@@ -315,6 +586,8 @@ public class GameController implements Initializable, Observer {
 			final int turns = turnsPlayed;
 			Platform.runLater(() -> lblTurns.setText("Turns: " + turns));
 			Platform.runLater(() -> lblWinner.setText(""));
+			Platform.runLater(() -> lblVariation.setText(""));
+			Platform.runLater(() -> lblSearch.setText(""));
 
 			gameLoop = new GameLoop(this);
 			gameLoop.start();
@@ -331,6 +604,7 @@ public class GameController implements Initializable, Observer {
 	 */
 	@Override
 	public void update(Observable o, Object arg) {
+		Object updateEvent = Events.ENABLED ? Events.beginViewUpdate() : null;
 		// Update from the GameBoard
 		if (arg instanceof gamelogic.GameBoardDTO) {
 			// Variables to control the timer
@@ -366,12 +640,17 @@ public class GameController implements Initializable, Observer {
 		// Update from the Game
 		if (arg instanceof gamelogic.Game) {
 			turnsPlayed++;
+			Metrics.move();
 			final int turns = turnsPlayed;
 			Platform.runLater(() -> lblTurns.setText("Turns: " + turns));
 
 			game.validatePlayable();
 			toggleRow(game.getTurn());
 		}
+		if (updateEvent != null) {
+			int changedPits = arg instanceof GameBoardDTO ? ((GameBoardDTO) arg).getChangedPits().size() : 0;
+			Events.endViewUpdate(updateEvent, arg == null ? "" : arg.getClass().getSimpleName(), changedPits);
+		}
 	}
 
 	/**
@@ -1,11 +1,11 @@
 package userinterface;
 
-import java.util.Date;
-
 import computerplayer.Defensive;
 import computerplayer.Greedy;
+import computerplayer.MCTS;
 import computerplayer.MinMax;
 import computerplayer.Random;
+import computerplayer.SearchStatistics;
 import computerplayer.TurnCalculator;
 import gamelogic.Game;
 
@@ -20,7 +20,9 @@ public class GameLoop extends Thread {
 	private final int DELAY = 1000;
 
 	private GameController gameController;
-	private boolean stopped;
+	// Polled by the computer players, so a running search stops soon after
+	// the loop is cancelled
+	private volatile boolean stopped;
 	private int playerTurn;
 
 	public GameLoop(GameController gameController) {
@@ -49,46 +51,46 @@ public class GameLoop extends Thread {
 		while (!game.hasEnded() && !stopped && !this.isInterrupted()) {
 			TurnCalculator turnCalculator = null;
 			try {
-				switch (game.getCurrentPlayer().getPlayerMode()) {
-					case DEFENSIVE:
-						turnCalculator = new Defensive();
-						gameController.setPlayerTurn(false);
-						break;
-					case GREEDY:
-						turnCalculator = new Greedy();
-						gameController.setPlayerTurn(false);
-						break;
-					case MINMAX:
-						MinMax minMax = new MinMax();
-						minMax.setDepth(gameController.getDepth());
-						turnCalculator = minMax;
-						gameController.setPlayerTurn(false);
-						break;
-					case RANDOM:
-						turnCalculator = new Random();
-						gameController.setPlayerTurn(false);
-						break;
-					case HUMAN:
+				if (game.getCurrentPlayer().getPlayerMode() == PlayerMode.HUMAN) {
+					if (playerTurn != -1) {
 						gameController.setPlayerTurn(true);
-						if (playerTurn != -1) {
-							game.playTurn(playerTurn);
-							playerTurn = -1;
-						} else {
-							// Loop is interrupted while the human player
-							// chooses its turn.
-							this.interrupt();
-						}
-						break;
-					default:
-						break;
+						game.playTurn(playerTurn);
+						playerTurn = -1;
+					} else {
+						// The computer player thinks about its answer while
+						// the human player chooses its turn, it starts before
+						// the human player may choose
+						gameController.startPondering(this.createTurnCalculator(game.getOpposingPlayer().getPlayerMode()));
+						gameController.setPlayerTurn(true);
+						// Loop is interrupted while the human player
+						// chooses its turn.
+						this.interrupt();
+					}
+				} else {
+					turnCalculator = this.createTurnCalculator(game.getCurrentPlayer().getPlayerMode());
+					gameController.setPlayerTurn(false);
 				}
 				if (turnCalculator != null && !game.hasEnded() && !stopped) {
+					gameController.stopPondering();
 					gameController.removeObservers();
-					Date before = new Date();
-					int column = turnCalculator.calculateTurn(game);
-					Date after = new Date();
-					long diff = after.getTime() - before.getTime();
+					long before = System.nanoTime();
+					int column = turnCalculator.calculateTurn(game, this::isCanceled);
+					long nanos = System.nanoTime() - before;
 					gameController.setObservers();
+					// The column of a cancelled search is not played
+					if (stopped) {
+						break;
+					}
+					SearchStatistics statistics = turnCalculator.getStatistics();
+					if (statistics == null) {
+						statistics = new SearchStatistics();
+						statistics.endTurn(nanos, 0);
+					}
+					gameController.addSearchStatistics(game.getCurrentPlayer().getPlayerMode(), statistics);
+					if (turnCalculator instanceof MinMax) {
+						gameController.showVariation(game, ((MinMax) turnCalculator).getPrincipalVariation());
+					}
+					long diff = nanos / 1000000;
 					if (gameController.isDelayed() && diff < DELAY) {
 						Thread.sleep(DELAY - diff);
 					}
@@ -100,4 +102,41 @@ public class GameLoop extends Thread {
 		}
 		gameController.endGame();
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Creates the computer player of a mode with the settings of the current
+	 * difficulty
+	 * 
+	 * @param playerMode
+	 *            The mode of the player
+	 * @return The computer player or null for a human player
+	 */
+	private TurnCalculator createTurnCalculator(PlayerMode playerMode) {
+		switch (playerMode) {
+			case DEFENSIVE:
+				return new Defensive();
+			case GREEDY:
+				return new Greedy();
+			case MINMAX:
+				MinMax minMax = new MinMax();
+				minMax.setDepth(gameController.getDepth());
+				minMax.setTimeLimit(gameController.getTimeLimit());
+				minMax.setParallel(Runtime.getRuntime().availableProcessors() > 1);
+				minMax.setTranspositionTable(gameController.getTranspositionTable());
+				minMax.setEndgameTable(gameController.getEndgameTable());
+				minMax.setOpeningBook(gameController.getOpeningBook());
+				minMax.setSolver(gameController.getSolver());
+				return minMax;
+			case MCTS:
+				MCTS monteCarlo = gameController.getMonteCarlo();
+				monteCarlo.setIterations(gameController.getIterations());
+				monteCarlo.setTimeLimit(gameController.getTimeLimit());
+				monteCarlo.setThreads(Runtime.getRuntime().availableProcessors());
+				return monteCarlo;
+			case RANDOM:
+				return new Random();
+			default:
+				return null;
+		}
+	}
+}
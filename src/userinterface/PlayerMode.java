@@ -7,7 +7,7 @@ package userinterface;
  *
  */
 public enum PlayerMode {
-	HUMAN("Human"), MINMAX("Optimal"), RANDOM("Random"), GREEDY("Greedy"), DEFENSIVE("Defensive");
+	HUMAN("Human"), MINMAX("Optimal"), RANDOM("Random"), GREEDY("Greedy"), DEFENSIVE("Defensive"), MCTS("Monte Carlo");
 	private String text;
 
 	private PlayerMode(String text) {
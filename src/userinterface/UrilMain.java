@@ -16,6 +16,8 @@ import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.scene.layout.HBox;
 import javafx.stage.Stage;
+import monitoring.Events;
+import monitoring.Metrics;
 import statistics.ObjectFactory;
 import statistics.Statistics;
 
@@ -41,7 +43,7 @@ public class UrilMain extends Application {
 			gameController = new GameController(this.readStatistics());
 			loader.setController(gameController);
 			HBox root = (HBox) loader.load();
-			Scene scene = new Scene(root, 630, 400);
+			Scene scene = new Scene(root, 630, 460);
 			scene.getStylesheets().add(getClass().getResource("application.css").toExternalForm());
 			primaryStage.setScene(scene);
 			primaryStage.setResizable(false);
@@ -64,9 +66,11 @@ public class UrilMain extends Application {
 	 *            The statistics object to be writen
 	 */
 	public void writeStatistics(Statistics statistics) {
+		Object event = Events.ENABLED ? Events.beginStatisticsWrite() : null;
+		long start = System.nanoTime();
+		// The output XML file
+		File file = new File("statistics.xml");
 		try {
-			// The output XML file
-			File file = new File("statistics.xml");
 			// We need a JAXBContex which knows our package (generated code)
 			JAXBContext context = JAXBContext.newInstance("statistics");
 			// Use the context to receive a marshaller object
@@ -77,6 +81,11 @@ public class UrilMain extends Application {
 		} catch (JAXBException jbe) {
 			jbe.printStackTrace();
 		}
+		Metrics.statisticsWritten(System.nanoTime() - start);
+		if (event != null) {
+			long games = statistics.getGamesPlayed() == null ? 0 : statistics.getGamesPlayed().longValue();
+			Events.endStatisticsWrite(event, file.getPath(), games);
+		}
 	}
 
 	/**